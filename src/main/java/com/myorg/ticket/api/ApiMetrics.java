@@ -0,0 +1,118 @@
+package com.myorg.ticket.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counts and latency per route ("GET /events/{id}"), safe to update
+ * from any number of request threads without locking.
+ *
+ * Latencies go into a log-linear histogram: eight buckets per power of two
+ * of microseconds, so reported percentiles are within 12.5% of the true
+ * value and recording costs a few atomic adds.
+ */
+public class ApiMetrics {
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    void record(String route, int status, long nanos) {
+        routes.computeIfAbsent(route, r -> new Route()).record(status, nanos);
+    }
+
+    /** Per-route counters and latency percentiles, in microseconds; ready for {@link Json#write}. */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        routes.keySet().stream().sorted().forEach(name -> out.put(name, routes.get(name).snapshot()));
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        routes.keySet().stream().sorted().forEach(name -> {
+            Route r = routes.get(name);
+            sb.append(String.format("%-32s %8d requests %6d errors  p50 %7d us  p99 %7d us  max %7d us%n",
+                    name, r.count.sum(), r.errors.sum(),
+                    r.percentile(0.50), r.percentile(0.99), r.maxMicros.get()));
+        });
+        return sb.toString();
+    }
+
+    private static final class Route {
+        private static final int SUB_BUCKETS = 8;
+        private static final int SUB_BITS = 3;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+
+        private void record(int status, long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            count.increment();
+            if (status >= 500) {
+                errors.increment();
+            }
+            totalMicros.add(micros);
+            maxMicros.accumulate(micros);
+            buckets.incrementAndGet(bucket(micros));
+        }
+
+        private static int bucket(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) Math.max(0, micros);
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        /** Largest value that falls into {@code bucket}. */
+        private static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+            long sub = bucket % SUB_BUCKETS;
+            return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+        }
+
+        private long percentile(double p) {
+            long total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                total += buckets.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(p * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), maxMicros.get());
+                }
+            }
+            return maxMicros.get();
+        }
+
+        private Map<String, Object> snapshot() {
+            long n = count.sum();
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("requests", n);
+            out.put("errors", errors.sum());
+            out.put("meanMicros", n == 0 ? 0 : totalMicros.sum() / n);
+            out.put("p50Micros", percentile(0.50));
+            out.put("p90Micros", percentile(0.90));
+            out.put("p99Micros", percentile(0.99));
+            out.put("maxMicros", maxMicros.get());
+            return out;
+        }
+    }
+}
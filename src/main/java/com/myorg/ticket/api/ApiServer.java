@@ -0,0 +1,565 @@
+package com.myorg.ticket.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.model.Reservation;
+import com.myorg.ticket.model.TicketCategory;
+import com.myorg.ticket.model.User;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.ReservationService;
+import com.myorg.ticket.service.ServiceClosedException;
+import com.myorg.ticket.service.UserService;
+import com.myorg.ticket.service.VirtualThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * HTTP/JSON front end over the services, on the JDK's built-in server.
+ * Every request runs on its own virtual thread when the JDK has them (21+);
+ * on older JDKs a fixed pool of {@code ticket.api.threads} platform threads
+ * (default 200) takes its place.
+ *
+ * <pre>
+ * POST   /users/signup          {"username"}
+ * POST   /users/login           {"username"}
+ * POST   /events                {"name", "dateTime", "location", "categories": [{"name", "price", "available"}]}
+ * GET    /events?from=&amp;to=&amp;q=&amp;limit=   dates as yyyy-MM-dd; q searches names and venues;
+ *                               at most limit events (default 50, up to 1000)
+ * GET    /events/{id}
+ * POST   /reservations          {"eventId", "category", "quantity", "username"?}
+ * GET    /reservations?username=
+ * GET    /reservations/{id}
+ * DELETE /reservations/{id}?username=   only the owner's own reservations
+ * GET    /metrics               request counts and latency per route
+ * </pre>
+ *
+ * Errors are {@code {"error": message}} with 400 for bad input, 404 for
+ * unknown ids, 409 when a request conflicts with the current state (sold
+ * out, username taken), 503 while the services are shutting down and 500
+ * otherwise.
+ */
+public class ApiServer {
+    private static final Logger LOG = Logger.getLogger(ApiServer.class.getName());
+
+    private static final int DEFAULT_PORT = Integer.getInteger("ticket.api.port", 8080);
+    private static final int BACKLOG = Integer.getInteger("ticket.api.backlog", 1_024);
+    private static final int FALLBACK_THREADS = Integer.getInteger("ticket.api.threads", 200);
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int DEFAULT_SEARCH_LIMIT = 50;
+    private static final int MAX_SEARCH_LIMIT = 1_000;
+
+    private final EventService events;
+    private final ReservationService reservations;
+    private final UserService users;
+    private final ApiMetrics metrics = new ApiMetrics();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public ApiServer(InetSocketAddress address, EventService events,
+                     ReservationService reservations, UserService users) throws IOException {
+        this.events = events;
+        this.reservations = reservations;
+        this.users = users;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ApiServer api = new ApiServer(new InetSocketAddress(port),
+                new EventService(), new ReservationService(), new UserService());
+        api.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> api.stop(1)));
+        System.out.println("Ticket API listening on port " + api.getPort());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** Stops accepting requests, waits up to {@code delaySeconds} for running ones, then shuts the executor down. */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public ApiMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Virtual threads where available; otherwise a fixed pool of daemon threads. */
+    static ExecutorService newRequestExecutor() {
+        return VirtualThreads.newPerTaskExecutor(() ->
+                Executors.newFixedThreadPool(FALLBACK_THREADS, VirtualThreads.daemonThreads("api-worker")));
+    }
+
+    // -- dispatch ---------------------------------------------------------
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String method = exchange.getRequestMethod();
+        String[] path = segments(exchange.getRequestURI());
+        String route = routeName(method, path);
+        int status;
+        Object body;
+        Error fatal = null;
+        try {
+            Response r = dispatch(method, path, exchange);
+            status = r.status;
+            body = r.body;
+        } catch (ApiException e) {
+            status = e.status;
+            body = error(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (ServiceClosedException e) {
+            status = 503;
+            body = error(e.getMessage());
+        } catch (IllegalStateException e) {
+            status = 409;
+            body = error(e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, route + " failed", e);
+            status = 500;
+            body = error("Internal error");
+        } catch (Error e) {
+            // Still answer and count the request, or the client waits forever
+            LOG.log(Level.SEVERE, route + " failed", e);
+            fatal = e;
+            status = 500;
+            body = error("Internal error");
+        }
+        try {
+            send(exchange, status, body);
+        } finally {
+            metrics.record(route, status, System.nanoTime() - start);
+        }
+        if (fatal != null) {
+            throw fatal;
+        }
+    }
+
+    private Response dispatch(String method, String[] path, HttpExchange exchange) throws IOException {
+        if (path.length == 0) {
+            throw new ApiException(404, "Not found");
+        }
+        switch (path[0]) {
+            case "users":
+                if (path.length == 2 && method.equals("POST") && path[1].equals("signup")) {
+                    return signUp(readObject(exchange));
+                }
+                if (path.length == 2 && method.equals("POST") && path[1].equals("login")) {
+                    return login(readObject(exchange));
+                }
+                break;
+            case "events":
+                if (path.length == 1 && method.equals("POST")) {
+                    return createEvent(readObject(exchange));
+                }
+                if (path.length == 1 && method.equals("GET")) {
+                    return searchEvents(query(exchange));
+                }
+                if (path.length == 2 && method.equals("GET")) {
+                    return getEvent(path[1]);
+                }
+                break;
+            case "reservations":
+                if (path.length == 1 && method.equals("POST")) {
+                    return reserve(readObject(exchange));
+                }
+                if (path.length == 1 && method.equals("GET")) {
+                    return listReservations(query(exchange));
+                }
+                if (path.length == 2 && method.equals("GET")) {
+                    return getReservation(path[1]);
+                }
+                if (path.length == 2 && method.equals("DELETE")) {
+                    return cancel(path[1], query(exchange));
+                }
+                break;
+            case "metrics":
+                if (path.length == 1 && method.equals("GET")) {
+                    return new Response(200, metrics.snapshot());
+                }
+                break;
+            default:
+                break;
+        }
+        throw new ApiException(404, "Not found");
+    }
+
+    // -- users ------------------------------------------------------------
+
+    private Response signUp(Map<String, Object> body) {
+        User user = users.signUp(requireString(body, "username"));
+        return new Response(201, toJson(user));
+    }
+
+    private Response login(Map<String, Object> body) {
+        User user = users.login(requireString(body, "username"))
+                .orElseThrow(() -> new ApiException(404, "Unknown user"));
+        return new Response(200, toJson(user));
+    }
+
+    private User requireUser(String username) {
+        return users.login(username).orElseThrow(() -> new ApiException(404, "Unknown user"));
+    }
+
+    // -- events -----------------------------------------------------------
+
+    private Response createEvent(Map<String, Object> body) {
+        Event.Builder event = Event.builder()
+                .name(requireString(body, "name"))
+                .dateTime(parseDateTime(requireString(body, "dateTime")))
+                .location(requireString(body, "location"));
+        Object categories = body.get("categories");
+        if (categories != null) {
+            if (!(categories instanceof List<?> list)) {
+                throw new IllegalArgumentException("'categories' must be an array");
+            }
+            for (Object item : list) {
+                if (!(item instanceof Map<?, ?>)) {
+                    throw new IllegalArgumentException("Each category must be an object");
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> cat = (Map<String, Object>) item;
+                int available = requireInt(cat, "available");
+                if (available < 0) {
+                    throw new IllegalArgumentException("'available' must not be negative");
+                }
+                event.addCategory(requireString(cat, "name"), requireNumber(cat, "price").doubleValue(), available);
+            }
+        }
+        return new Response(201, toJson(events.createEvent(event.build())));
+    }
+
+    private Response searchEvents(Map<String, String> query) {
+        LocalDate from = parseDate(query.get("from"));
+        LocalDate to = parseDate(query.get("to"));
+        String keywords = query.get("q");
+        int limit = query.containsKey("limit") ? parseInt(query.get("limit"), "limit") : DEFAULT_SEARCH_LIMIT;
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("'limit' must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        List<Event> found;
+        if (keywords != null && !keywords.isBlank()) {
+            found = events.searchText(keywords, from, to, limit);
+        } else {
+            found = events.search(from, to, limit);
+        }
+        List<Object> out = new ArrayList<>(found.size());
+        for (Event e : found) {
+            out.add(toJson(e));
+        }
+        return new Response(200, out);
+    }
+
+    private Response getEvent(String id) {
+        Event event = events.findById(parseInt(id, "event id"));
+        if (event == null) {
+            throw new ApiException(404, "Event not found");
+        }
+        return new Response(200, toJson(event));
+    }
+
+    // -- reservations -----------------------------------------------------
+
+    private Response reserve(Map<String, Object> body) {
+        int quantity = requireInt(body, "quantity");
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("'quantity' must be positive");
+        }
+        Object username = body.get("username");
+        User user = username == null ? null : requireUser(username.toString());
+        Reservation r = reservations.makeReservation(
+                requireInt(body, "eventId"), requireString(body, "category"), quantity, user);
+        return new Response(201, toJson(r));
+    }
+
+    private Response listReservations(Map<String, String> query) {
+        String username = query.get("username");
+        if (username == null) {
+            throw new IllegalArgumentException("Missing 'username'");
+        }
+        List<Object> out = new ArrayList<>();
+        for (Reservation r : reservations.listByUser(requireUser(username))) {
+            out.add(toJson(r));
+        }
+        return new Response(200, out);
+    }
+
+    private Response getReservation(String id) {
+        Reservation r = reservations.findById(parseUuid(id));
+        if (r == null) {
+            throw new ApiException(404, "Reservation not found");
+        }
+        return new Response(200, toJson(r));
+    }
+
+    private Response cancel(String id, Map<String, String> query) {
+        UUID reservationId = parseUuid(id);
+        String username = query.get("username");
+        if (username == null) {
+            throw new IllegalArgumentException("Missing 'username'");
+        }
+        User user = requireUser(username);
+        // Someone else's reservation looks the same as a missing one
+        if (!user.getPastReservations().contains(reservationId)) {
+            throw new ApiException(404, "Reservation not found");
+        }
+        try {
+            reservations.cancelReservation(reservationId, user);
+        } catch (IllegalArgumentException e) {
+            // cancelled by a concurrent request since the check
+            throw new ApiException(404, "Reservation not found");
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("cancelled", true);
+        return new Response(200, out);
+    }
+
+    // -- JSON mapping -----------------------------------------------------
+
+    private static Map<String, Object> toJson(Event e) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("id", e.getEventId());
+        out.put("uuid", e.getUuid());
+        out.put("name", e.getName());
+        out.put("dateTime", e.getDateTime());
+        out.put("location", e.getLocation());
+        List<Object> categories = new ArrayList<>();
+        for (TicketCategory c : e.getCategories()) {
+            Map<String, Object> cat = new LinkedHashMap<>();
+            cat.put("id", c.getCategoryId());
+            cat.put("name", c.getName());
+            cat.put("price", c.getPrice());
+            cat.put("available", c.getAvailable());
+            categories.add(cat);
+        }
+        out.put("categories", categories);
+        return out;
+    }
+
+    private static Map<String, Object> toJson(Reservation r) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("id", r.getId());
+        out.put("eventId", r.getEventId());
+        out.put("category", r.getCategoryName());
+        out.put("quantity", r.getQuantity());
+        out.put("reservedAt", r.getReservedAt());
+        return out;
+    }
+
+    private static Map<String, Object> toJson(User u) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("id", u.getId());
+        out.put("username", u.getUsername());
+        out.put("reservations", new ArrayList<>(u.getPastReservations()));
+        return out;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("error", message);
+        return out;
+    }
+
+    // -- request parsing --------------------------------------------------
+
+    private static String[] segments(URI uri) {
+        return java.util.Arrays.stream(uri.getPath().split("/"))
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Route for metrics, with ids replaced so every event shares one entry;
+     * unknown paths are counted together.
+     */
+    private static String routeName(String method, String[] path) {
+        String template = template(path);
+        return template == null ? "(other)" : method + " " + template;
+    }
+
+    private static String template(String[] path) {
+        if (path.length == 0) {
+            return null;
+        }
+        switch (path[0]) {
+            case "events", "reservations":
+                if (path.length <= 2) {
+                    return path.length == 1 ? "/" + path[0] : "/" + path[0] + "/{id}";
+                }
+                break;
+            case "users":
+                if (path.length == 2 && (path[1].equals("signup") || path[1].equals("login"))) {
+                    return "/users/" + path[1];
+                }
+                break;
+            case "metrics":
+                if (path.length == 1) {
+                    return "/metrics";
+                }
+                break;
+            default:
+                break;
+        }
+        return null;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readObject(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new ApiException(413, "Request body too large");
+        }
+        Object parsed = Json.parse(new String(bytes, StandardCharsets.UTF_8));
+        if (!(parsed instanceof Map)) {
+            throw new IllegalArgumentException("Request body must be a JSON object");
+        }
+        return (Map<String, Object>) parsed;
+    }
+
+    private static String requireString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof String s) || s.isBlank()) {
+            throw new IllegalArgumentException("Missing '" + field + "'");
+        }
+        return s;
+    }
+
+    private static Number requireNumber(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof Number n)) {
+            throw new IllegalArgumentException("'" + field + "' must be a number");
+        }
+        return n;
+    }
+
+    private static int requireInt(Map<String, Object> body, String field) {
+        Number n = requireNumber(body, field);
+        if (!(n instanceof Long) || n.longValue() != n.intValue()) {
+            throw new IllegalArgumentException("'" + field + "' must be an integer");
+        }
+        return n.intValue();
+    }
+
+    private static int parseInt(String value, String what) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid reservation id: " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date (use yyyy-MM-dd): " + value);
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid dateTime (use yyyy-MM-ddTHH:mm): " + value);
+        }
+    }
+
+    // -- response ---------------------------------------------------------
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static final class Response {
+        private final int status;
+        private final Object body;
+
+        private Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /** A failure with a specific HTTP status. */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -64,6 +64,11 @@ public class Event {
             return this;
         }
 
+        public Builder addCategory(int categoryId, String catName, double price, int available) {
+            this.categories.add(new TicketCategory(categoryId, catName, price, available));
+            return this;
+        }
+
         public Event build() {
             if (name == null || dateTime == null || location == null) {
                 throw new IllegalStateException("Event must have name, dateTime, and location");
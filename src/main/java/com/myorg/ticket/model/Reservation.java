@@ -1,21 +1,42 @@
 package com.myorg.ticket.model;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 import java.util.UUID;
 
 public class Reservation {
+    private static volatile ReservationIdGenerator idGenerator = ReservationIdGenerator.timeOrdered();
+
     private UUID id;
     private final int eventId;
+    private final int categoryId;
     private final String categoryName;
     private final int quantity;
-    private final LocalDateTime reservedAt;
+    private LocalDateTime reservedAt;
 
+    /** A new, unsaved reservation; its category id is known once it is saved. */
     public Reservation(int eventId, String categoryName, int quantity) {
-        this.id = UUID.randomUUID();
+        this(idGenerator.next(), eventId, 0, categoryName, quantity, LocalDateTime.now());
+    }
+
+    private Reservation(UUID id, int eventId, int categoryId, String categoryName, int quantity,
+                        LocalDateTime reservedAt) {
+        this.id = id;
         this.eventId = eventId;
+        this.categoryId = categoryId;
         this.categoryName = categoryName;
         this.quantity = quantity;
-        this.reservedAt = LocalDateTime.now();
+        this.reservedAt = reservedAt;
+    }
+
+    /**
+     * Rebuilds a stored reservation with its original ID and reservation
+     * time; no new ID is generated.
+     */
+    public static Reservation restore(UUID id, int eventId, int categoryId, String categoryName,
+                                      int quantity, LocalDateTime reservedAt) {
+        return new Reservation(Objects.requireNonNull(id, "id"), eventId, categoryId, categoryName, quantity,
+                Objects.requireNonNull(reservedAt, "reservedAt"));
     }
 
     public UUID getId() {
@@ -26,6 +47,11 @@ public class Reservation {
         return eventId;
     }
 
+    /** Database id of the reserved category; 0 if not known. */
+    public int getCategoryId() {
+        return categoryId;
+    }
+
     public String getCategoryName() {
         return categoryName;
     }
@@ -38,8 +64,24 @@ public class Reservation {
         return reservedAt;
     }
 
+    /**
+     * Replaces the source of IDs for reservations created from now on.
+     * Defaults to {@link ReservationIdGenerator#timeOrdered()}.
+     */
+    public static void setIdGenerator(ReservationIdGenerator generator) {
+        idGenerator = Objects.requireNonNull(generator, "generator");
+    }
+
     public static Reservation withId(String id, LocalDateTime date, Reservation r) {
-        r.id = UUID.fromString(id);
+        return withId(UUID.fromString(id), date, r);
+    }
+
+    /** Sets the ID of {@code r}, and its reservation time unless {@code date} is null. */
+    public static Reservation withId(UUID id, LocalDateTime date, Reservation r) {
+        r.id = id;
+        if (date != null) {
+            r.reservedAt = date;
+        }
         return r;
     }
 }
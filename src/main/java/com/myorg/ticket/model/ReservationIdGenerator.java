@@ -0,0 +1,27 @@
+package com.myorg.ticket.model;
+
+import java.util.UUID;
+
+/**
+ * Source of IDs for new reservations. Install one with
+ * {@link Reservation#setIdGenerator(ReservationIdGenerator)}.
+ */
+@FunctionalInterface
+public interface ReservationIdGenerator {
+
+    UUID next();
+
+    /** Random version 4 UUIDs, as produced by {@link UUID#randomUUID()}. */
+    static ReservationIdGenerator random() {
+        return UUID::randomUUID;
+    }
+
+    /**
+     * Time-ordered version 7 UUIDs; the default. Each ID starts with the
+     * creation time in milliseconds, so new reservations are appended at the
+     * right edge of the primary-key index instead of landing on a random page.
+     */
+    static ReservationIdGenerator timeOrdered() {
+        return TimeOrderedIdGenerator.INSTANCE;
+    }
+}
@@ -1,15 +1,37 @@
 // src/main/java/com/myorg/ticket/model/TicketCategory.java
 package com.myorg.ticket.model;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A priced ticket category and its remaining stock. Safe to share between
+ * threads: reserve and restore update the count with compare-and-set, so
+ * concurrent callers never oversell or lose a restore, and never block.
+ */
 public class TicketCategory {
+    private final int categoryId;
     private final String name;
     private final double price;
-    private int available;
+    private final AtomicInteger available;
 
     public TicketCategory(String name, double price, int available) {
+        this(0, name, price, available);
+    }
+
+    /**
+     * 
+     * Constructor for a category loaded from the database.
+     */
+    public TicketCategory(int categoryId, String name, double price, int available) {
+        this.categoryId = categoryId;
         this.name = name;
         this.price = price;
-        this.available = available;
+        this.available = new AtomicInteger(available);
+    }
+
+    /** Database id of the category; 0 until it has been saved. */
+    public int getCategoryId() {
+        return categoryId;
     }
 
     public String getName() {
@@ -21,35 +43,28 @@ public class TicketCategory {
     }
 
     public int getAvailable() {
-        return available;
+        return available.get();
     }
 
-    // /**
-    // * Attempt to reserve `quantity` tickets.
-    // *
-    // * @return true if enough tickets were available (and decremented), false
-    // * otherwise.
-    // */
-    // public boolean reserve(int quantity) {
-    // if (quantity <= available) {
-    // available -= quantity;
-    // return true;
-    // }
-    // return false;
-    // }
-
     /**
-     * Attempt to reserve quantity tickets.
+     * Attempt to reserve quantity tickets, all or nothing.
      * 
      * @return true if enough tickets were available, false otherwise.
      */
     public boolean reserve(int quantity) {
-
-        if (quantity > 0 && quantity <= available) {
-            available -= quantity;
-            return true;
+        if (quantity <= 0) {
+            return false;
+        }
+        while (true) {
+            int current = available.get();
+            if (quantity > current) {
+                return false;
+            }
+            if (available.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+            // another thread changed the count in between; re-check and retry
         }
-        return false;
     }
 
     /**
@@ -58,7 +73,7 @@ public class TicketCategory {
      */
     public void restore(int quantity) {
         if (quantity > 0) {
-            available += quantity;
+            available.addAndGet(quantity);
         }
     }
 
@@ -0,0 +1,39 @@
+package com.myorg.ticket.model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 layout: 48-bit Unix millisecond timestamp, version, a 12-bit
+ * counter, variant, then 62 random bits. The timestamp and counter advance
+ * together with one atomic update, so IDs strictly increase across all
+ * threads, even within one millisecond or if the clock steps back; a counter
+ * overflow borrows the next millisecond. The random bits come from
+ * {@link ThreadLocalRandom}, which threads do not share.
+ */
+final class TimeOrderedIdGenerator implements ReservationIdGenerator {
+    static final TimeOrderedIdGenerator INSTANCE = new TimeOrderedIdGenerator();
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    /** Last issued timestamp and counter, as {@code millis << 12 | counter}. */
+    private final AtomicLong last = new AtomicLong();
+
+    private TimeOrderedIdGenerator() {
+    }
+
+    @Override
+    public UUID next() {
+        long floor = System.currentTimeMillis() << COUNTER_BITS;
+        long stamp = last.accumulateAndGet(floor, (prev, now) -> Math.max(prev + 1, now));
+
+        long msb = (stamp >>> COUNTER_BITS) << 16    // unix_ts_ms
+                | 0x7000L                            // version 7
+                | (stamp & COUNTER_MASK);            // counter
+        long lsb = ThreadLocalRandom.current().nextLong() >>> 2
+                | 0x8000000000000000L;               // IETF variant
+        return new UUID(msb, lsb);
+    }
+}
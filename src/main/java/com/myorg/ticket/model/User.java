@@ -3,6 +3,7 @@
 package com.myorg.ticket.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -10,7 +11,9 @@ public class User {
     private final UUID id;
     private String username; // can be null or empty for "guest"
 
-    private final List<UUID> pastReservations = new ArrayList<>();
+    // Synchronized: concurrent bookings and cancellations for the same user
+    // (e.g. through AsyncTicketService) update it from different threads
+    private final List<UUID> pastReservations = Collections.synchronizedList(new ArrayList<>());
 
     /**
      * 
@@ -41,6 +44,11 @@ public class User {
         this.username = username;
     }
 
+    /**
+     * 
+     * The live list of reservation IDs. Safe to copy or query while other
+     * threads book for this user; to iterate it, hold its lock.
+     */
     public List<UUID> getPastReservations() {
         return pastReservations;
     }
@@ -51,12 +59,22 @@ public class User {
      * DB.
      */
     public void setPastReservations(List<UUID> pastReservations) {
-        this.pastReservations.clear();
-        this.pastReservations.addAll(pastReservations);
+        synchronized (this.pastReservations) {
+            this.pastReservations.clear();
+            this.pastReservations.addAll(pastReservations);
+        }
     }
 
     public void addReservation(UUID reservationId) {
         pastReservations.add(reservationId);
     }
 
+    /**
+     * 
+     * Drops a reservation ID, e.g. after a cancellation.
+     */
+    public void removeReservation(UUID reservationId) {
+        pastReservations.remove(reservationId);
+    }
+
 }
\ No newline at end of file
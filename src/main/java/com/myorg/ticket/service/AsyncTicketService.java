@@ -0,0 +1,339 @@
+package com.myorg.ticket.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.model.Reservation;
+import com.myorg.ticket.model.User;
+
+/**
+ * Non-blocking front to {@link EventService}, {@link ReservationService} and
+ * {@link UserService}: every call returns at once with a
+ * {@link CompletableFuture}, and the blocking JDBC work runs on the facade's
+ * executor. Independent lookups can then run side by side:
+ *
+ * <pre>
+ * async.listByUser(user).thenCompose(reservations -&gt;
+ *         async.findEvents(reservations.stream().map(Reservation::getEventId).toList()))
+ * </pre>
+ *
+ * At most {@code maxInFlight} calls run at once; later ones wait in a queue
+ * without holding a thread. A call still queued when the timeout runs out
+ * never starts and fails with a {@link java.util.concurrent.TimeoutException}.
+ * A lookup that has started fails the same way once its time is up, though
+ * the statement itself cannot be interrupted and keeps its slot until it
+ * returns. Changes (events, reservations, cancellations, sign-ups) are not
+ * timed out once started: they run to the end and the future reports what
+ * actually happened, so a timed-out change is never applied.
+ *
+ * Exceptions from the services (sold out, unknown reservation, ...) fail the
+ * future unchanged. Calls for the same {@link User} may run at once; their
+ * updates to its reservation list are synchronized, in whatever order the
+ * commits happen.
+ */
+public class AsyncTicketService implements AutoCloseable {
+    private static final int DEFAULT_MAX_IN_FLIGHT = Integer.getInteger("ticket.async.maxInFlight", 64);
+    private static final long DEFAULT_TIMEOUT_MS = Long.getLong("ticket.async.timeoutMs", 30_000);
+    /** Ids per {@link EventService#findByIds} call; one query's worth. */
+    private static final int EVENTS_PER_CALL = 500;
+
+    private final EventService events;
+    private final ReservationService reservations;
+    private final UserService users;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final Semaphore permits;
+    private final Queue<Call<?>> waiting = new ConcurrentLinkedQueue<>();
+    private final long timeoutNanos;
+
+    /** Default services, executor, bound and timeout. */
+    public AsyncTicketService() {
+        this(builder());
+    }
+
+    private AsyncTicketService(Builder b) {
+        this.events = b.events != null ? b.events : new EventService();
+        this.reservations = b.reservations != null ? b.reservations : new ReservationService();
+        this.users = b.users != null ? b.users : new UserService();
+        this.ownsExecutor = b.executor == null;
+        this.executor = b.executor != null ? b.executor : newDefaultExecutor();
+        this.permits = new Semaphore(b.maxInFlight);
+        this.timeoutNanos = b.timeout.toNanos();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private EventService events;
+        private ReservationService reservations;
+        private UserService users;
+        private Executor executor;
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private Duration timeout = Duration.ofMillis(DEFAULT_TIMEOUT_MS);
+
+        public Builder events(EventService events) {
+            this.events = events;
+            return this;
+        }
+
+        /** E.g. one built with group commit or lanes. */
+        public Builder reservations(ReservationService reservations) {
+            this.reservations = reservations;
+            return this;
+        }
+
+        public Builder users(UserService users) {
+            this.users = users;
+            return this;
+        }
+
+        /**
+         * Runs the blocking calls; the caller keeps ownership and shuts it
+         * down. By default a virtual thread per call where the JDK has them,
+         * otherwise daemon platform threads, which the facade closes.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /** Calls running at once; the rest queue. Also caps database connections in use. */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("Need at least one call in flight");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Time from submission until a lookup fails, queueing included; for
+         * changes, the longest they may wait to start.
+         */
+        public Builder timeout(Duration timeout) {
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        public AsyncTicketService build() {
+            return new AsyncTicketService(this);
+        }
+    }
+
+    /**
+     * Virtual threads where available; otherwise an unbounded pool of daemon
+     * threads, which the in-flight bound keeps from growing past
+     * {@code maxInFlight} busy threads.
+     */
+    private static ExecutorService newDefaultExecutor() {
+        return VirtualThreads.newPerTaskExecutor(() ->
+                Executors.newCachedThreadPool(VirtualThreads.daemonThreads("ticket-async")));
+    }
+
+    // -- events -----------------------------------------------------------
+
+    public CompletableFuture<Event> createEvent(Event event) {
+        return submitChange(() -> events.createEvent(event));
+    }
+
+    public CompletableFuture<List<Event>> search(LocalDate start, LocalDate end) {
+        return submit(() -> events.search(start, end));
+    }
+
+    public CompletableFuture<List<Event>> searchText(String keywords, LocalDate start, LocalDate end, int limit) {
+        return submit(() -> events.searchText(keywords, start, end, limit));
+    }
+
+    public CompletableFuture<List<Event>> query(EventQuery query) {
+        return submit(() -> events.query(query));
+    }
+
+    /** Completes with null if there is no such event. */
+    public CompletableFuture<Event> findEvent(int eventId) {
+        return submit(() -> events.findById(eventId));
+    }
+
+    /**
+     * Looks up the distinct ids in chunks, each a single bulk query; large
+     * requests fan out over several calls at once.
+     *
+     * @return the events found, keyed by id in the order requested; unknown
+     *         ids are absent.
+     */
+    public CompletableFuture<Map<Integer, Event>> findEvents(Collection<Integer> eventIds) {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(eventIds));
+        List<CompletableFuture<Map<Integer, Event>>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += EVENTS_PER_CALL) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + EVENTS_PER_CALL, ids.size()));
+            chunks.add(submit(() -> events.findByIds(chunk)));
+        }
+        if (chunks.size() == 1) {
+            return chunks.get(0);
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Map<Integer, Event> found = new LinkedHashMap<>();
+            for (CompletableFuture<Map<Integer, Event>> chunk : chunks) {
+                found.putAll(chunk.join());
+            }
+            return found;
+        });
+    }
+
+    public CompletableFuture<Map<String, Integer>> availability(int eventId) {
+        return submit(() -> events.availability(eventId));
+    }
+
+    // -- reservations -----------------------------------------------------
+
+    public CompletableFuture<Reservation> makeReservation(int eventId, String categoryName, int qty, User user) {
+        return submitChange(() -> reservations.makeReservation(eventId, categoryName, qty, user));
+    }
+
+    public CompletableFuture<List<Reservation>> makeReservations(List<ReservationLine> lines, User user) {
+        return submitChange(() -> reservations.makeReservations(lines, user));
+    }
+
+    /** Completes with null if there is no such reservation. */
+    public CompletableFuture<Reservation> findReservation(UUID reservationId) {
+        return submit(() -> reservations.findById(reservationId));
+    }
+
+    public CompletableFuture<Map<UUID, Reservation>> findReservations(Collection<UUID> reservationIds) {
+        return submit(() -> reservations.findByIds(reservationIds));
+    }
+
+    public CompletableFuture<List<Reservation>> listByUser(User user) {
+        return submit(() -> reservations.listByUser(user));
+    }
+
+    public CompletableFuture<Boolean> cancelReservation(UUID reservationId, User user) {
+        return submitChange(() -> reservations.cancelReservation(reservationId, user));
+    }
+
+    // -- users ------------------------------------------------------------
+
+    public CompletableFuture<Optional<User>> login(String username) {
+        return submit(() -> users.login(username));
+    }
+
+    public CompletableFuture<User> signUp(String username) {
+        return submitChange(() -> users.signUp(username));
+    }
+
+    // -- scheduling -------------------------------------------------------
+
+    /** Calls queued behind the in-flight bound. */
+    public int getQueuedCalls() {
+        return waiting.size();
+    }
+
+    /** A lookup: times out queued or running. */
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        Call<T> call = new Call<>(work);
+        call.result.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS);
+        return enqueue(call);
+    }
+
+    /** A change: times out only while it waits to start. */
+    private <T> CompletableFuture<T> submitChange(Supplier<T> work) {
+        return enqueue(new Call<>(work));
+    }
+
+    private <T> CompletableFuture<T> enqueue(Call<T> call) {
+        call.queued.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS).whenComplete((started, e) -> {
+            if (e != null) {
+                call.expire(e);
+            }
+        });
+        waiting.add(call);
+        dispatch();
+        return call.result;
+    }
+
+    /** Starts queued calls while permits last. */
+    private void dispatch() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Call<?> call = waiting.poll();
+            if (call == null) {
+                permits.release(); // another thread took it; look again
+                continue;
+            }
+            try {
+                executor.execute(call);
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                call.expire(e);
+            }
+        }
+    }
+
+    private final class Call<T> implements Runnable {
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        /** Completed when the call starts; fails if it is still queued at the deadline. */
+        private final CompletableFuture<Void> queued = new CompletableFuture<>();
+        /** Taken by whichever comes first: the call starting or the deadline passing. */
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Call(Supplier<T> work) {
+            this.work = work;
+        }
+
+        /** Fails the call unless it has started. */
+        private void expire(Throwable cause) {
+            if (claimed.compareAndSet(false, true)) {
+                result.completeExceptionally(cause);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (claimed.compareAndSet(false, true)) {
+                    queued.complete(null); // cancels the queue deadline
+                    if (!result.isDone()) { // a lookup may have timed out already
+                        result.complete(work.get());
+                    }
+                }
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                permits.release();
+                dispatch();
+            }
+        }
+    }
+
+    /** Shuts down the default executor once running calls finish; a supplied executor is left alone. */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.myorg.ticket.service;
+
+/** Point-in-time view of a cache's size, hit ratio and evictions. */
+public final class CacheStats {
+    private final int capacity;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    CacheStats(int capacity, int size, long hits, long misses, long evictions) {
+        this.capacity = capacity;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /** Entries dropped to stay within capacity (explicit invalidations excluded). */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /** Fraction of lookups served from the cache (0.0 – 1.0). */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d entries, %d hits / %d misses (%.1f%%), %d evictions",
+                size, capacity, hits, misses, getHitRatio() * 100, evictions);
+    }
+}
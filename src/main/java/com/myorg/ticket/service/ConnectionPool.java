@@ -0,0 +1,370 @@
+package com.myorg.ticket.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.sqlite.SQLiteCommitListener;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteUpdateListener;
+
+/**
+ * Bounded pool of long-lived SQLite connections.
+ *
+ * SQLite allows a single writer at a time, so the pool keeps exactly one
+ * writer connection (guarded by a lock) plus a fixed number of reader
+ * connections that are opened lazily and reused across calls.
+ *
+ * Leases are bound to the calling thread: a thread that already holds a lease
+ * gets the same connection back instead of taking a second one. A thread that
+ * holds the writer therefore reads its own uncommitted changes, and nested
+ * calls (e.g. saveEvent → saveCategory) can never deadlock on the pool.
+ *
+ * Each connection keeps its own LRU cache of prepared statements, keyed by
+ * SQL text, so hot queries are compiled once per connection and then reused.
+ */
+class ConnectionPool implements AutoCloseable {
+    private final String url;
+    private final int maxReaders;
+    private final long timeoutMillis;
+    private final int statementCacheSize;
+    private final DurabilityProfile profile;
+
+    private final BlockingQueue<PooledConnection> idleReaders;
+    private final AtomicInteger openReaders = new AtomicInteger();
+    private final AtomicInteger busyReaders = new AtomicInteger();
+
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private PooledConnection writer;
+
+    private final ThreadLocal<Lease> held = new ThreadLocal<>();
+
+    // metrics
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    private volatile boolean closed;
+
+    ConnectionPool(String url, int maxReaders, long timeoutMillis, int statementCacheSize,
+                   DurabilityProfile profile) {
+        if (maxReaders < 1) {
+            throw new IllegalArgumentException("Pool needs at least one reader connection");
+        }
+        this.url = url;
+        this.maxReaders = maxReaders;
+        this.timeoutMillis = timeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.profile = profile;
+        this.idleReaders = new ArrayBlockingQueue<>(maxReaders);
+    }
+
+    /** Borrow a connection for read-only work. */
+    Lease reader() throws SQLException {
+        Lease current = held.get();
+        if (current != null) {
+            current.depth++;
+            return current;
+        }
+        long start = System.nanoTime();
+        PooledConnection c = takeReader();
+        recordWait(System.nanoTime() - start);
+        busyReaders.incrementAndGet();
+        Lease lease = new Lease(c, false, null);
+        held.set(lease);
+        return lease;
+    }
+
+    /** Borrow the single writer connection; blocks while another thread writes. */
+    Lease writer() throws SQLException {
+        Lease current = held.get();
+        if (current != null && current.writer) {
+            current.depth++;
+            return current;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!writerLock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out waiting for the writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection", e);
+        }
+        try {
+            ensureOpen();
+            if (writer == null || writer.connection.isClosed()) {
+                writer = new PooledConnection(openWriter());
+            }
+        } catch (SQLException e) {
+            writerLock.unlock();
+            throw e;
+        }
+        recordWait(System.nanoTime() - start);
+        Lease lease = new Lease(writer, true, current);
+        held.set(lease);
+        return lease;
+    }
+
+    private PooledConnection takeReader() throws SQLException {
+        ensureOpen();
+        PooledConnection c = idleReaders.poll();
+        if (c != null) {
+            return c;
+        }
+        // Open a new reader if we are still below the bound
+        while (true) {
+            int open = openReaders.get();
+            if (open >= maxReaders) {
+                break;
+            }
+            if (openReaders.compareAndSet(open, open + 1)) {
+                try {
+                    return new PooledConnection(open());
+                } catch (SQLException e) {
+                    openReaders.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+        try {
+            c = idleReaders.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection", e);
+        }
+        if (c == null) {
+            timeouts.incrementAndGet();
+            throw new SQLException("Timed out waiting for a reader connection");
+        }
+        return c;
+    }
+
+    private Connection open() throws SQLException {
+        return open(profile.toConfig());
+    }
+
+    /** Opens a connection with the durability profile's settings applied. */
+    private Connection open(SQLiteConfig config) throws SQLException {
+        Connection c = DriverManager.getConnection(url, config.toProperties());
+        try {
+            profile.configure(c);
+        } catch (SQLException e) {
+            closeQuietly(c);
+            throw e;
+        }
+        return c;
+    }
+
+    /**
+     * Opens the writer. Its transactions start with BEGIN IMMEDIATE, so a unit
+     * of work that reads before it writes takes the write lock up front instead
+     * of failing with SQLITE_BUSY when another process writes meanwhile. Every
+     * transaction it commits that changed rows (explicit or autocommit) is
+     * counted.
+     */
+    private Connection openWriter() throws SQLException {
+        SQLiteConfig config = profile.toConfig();
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        Connection c = open(config);
+        SyncCounter counter = new SyncCounter();
+        c.unwrap(SQLiteConnection.class).addUpdateListener(counter);
+        c.unwrap(SQLiteConnection.class).addCommitListener(counter);
+        return c;
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+
+    private void recordWait(long nanos) {
+        acquisitions.incrementAndGet();
+        waitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void release(Lease lease) {
+        held.set(lease.previous);
+        if (held.get() == null) {
+            held.remove();
+        }
+        if (lease.writer) {
+            writerLock.unlock();
+            return;
+        }
+        busyReaders.decrementAndGet();
+        PooledConnection c = lease.pooled;
+        boolean reusable;
+        try {
+            reusable = !closed && !c.connection.isClosed();
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        if (!reusable || !idleReaders.offer(c)) {
+            openReaders.decrementAndGet();
+            closeQuietly(c.connection);
+        }
+    }
+
+    /** Snapshot of the pool's wait-time and utilization counters. */
+    PoolStats stats() {
+        return new PoolStats(
+                maxReaders,
+                openReaders.get(),
+                busyReaders.get(),
+                writerLock.isLocked(),
+                writerLock.getQueueLength(),
+                acquisitions.get(),
+                waitNanos.get(),
+                maxWaitNanos.get(),
+                timeouts.get(),
+                commits.get(),
+                statementHits.get(),
+                statementMisses.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<PooledConnection> drained = new ArrayList<>();
+        idleReaders.drainTo(drained);
+        drained.forEach(c -> closeQuietly(c.connection));
+        openReaders.addAndGet(-drained.size());
+        writerLock.lock();
+        try {
+            if (writer != null) {
+                closeQuietly(writer.connection);
+                writer = null;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable c) {
+        try {
+            c.close();
+        } catch (Exception ignored) {
+            // nothing useful to do with a resource we are throwing away
+        }
+    }
+
+    /**
+     * Counts commits that actually changed rows. The JDBC driver also commits
+     * empty transactions (e.g. on setAutoCommit(true)), which never touch the
+     * disk, so a commit only counts if an update was seen since the last one.
+     * Only the lease holder uses the writer, so plain fields are enough.
+     */
+    private final class SyncCounter implements SQLiteUpdateListener, SQLiteCommitListener {
+        private boolean dirty;
+
+        @Override
+        public void onUpdate(Type type, String database, String table, long rowId) {
+            dirty = true;
+        }
+
+        @Override
+        public void onCommit() {
+            if (dirty) {
+                commits.incrementAndGet();
+                dirty = false;
+            }
+        }
+
+        @Override
+        public void onRollback() {
+            dirty = false; // rolled-back work never reaches the disk
+        }
+    }
+
+    /**
+     * A pooled connection and its prepared statements. Only the thread holding
+     * a lease on it touches the cache, so it needs no locking.
+     */
+    private final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                        if (size() <= statementCacheSize) {
+                            return false;
+                        }
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                };
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        private PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement p = statements.get(sql);
+            if (p != null && !p.isClosed()) {
+                statementHits.incrementAndGet();
+                return p;
+            }
+            statementMisses.incrementAndGet();
+            p = connection.prepareStatement(sql);
+            statements.put(sql, p);
+            return p;
+        }
+    }
+
+    /**
+     * A borrowed connection. Closing the lease hands the connection back to
+     * the pool; the underlying connection itself stays open.
+     */
+    final class Lease implements AutoCloseable {
+        private final PooledConnection pooled;
+        private final boolean writer;
+        private final Lease previous;
+        private int depth = 1;
+
+        private Lease(PooledConnection pooled, boolean writer, Lease previous) {
+            this.pooled = pooled;
+            this.writer = writer;
+            this.previous = previous;
+        }
+
+        Connection connection() {
+            return pooled.connection;
+        }
+
+        /**
+         * A prepared statement for {@code sql} from this connection's cache.
+         * The cache owns it: set every parameter before executing, close the
+         * ResultSets, but never close the statement itself.
+         */
+        PreparedStatement prepare(String sql) throws SQLException {
+            return pooled.prepare(sql);
+        }
+
+        @Override
+        public void close() {
+            if (--depth == 0) {
+                release(this);
+            }
+        }
+    }
+}
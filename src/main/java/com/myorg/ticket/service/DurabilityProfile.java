@@ -0,0 +1,98 @@
+package com.myorg.ticket.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+import org.sqlite.SQLiteConfig;
+
+/**
+ * Named trade-offs between commit latency and what survives a crash. All
+ * profiles run SQLite in WAL mode, so readers never block the writer; they
+ * differ in how often commits are synced to disk.
+ *
+ * <ul>
+ * <li>{@code strict}: every commit is fsynced (synchronous=FULL). Nothing that
+ * was acknowledged is lost, even on power failure.</li>
+ * <li>{@code balanced}: the WAL is synced at checkpoints only
+ * (synchronous=NORMAL). Survives application crashes; a power failure can
+ * roll back the last few commits, but never corrupts the database.</li>
+ * <li>{@code fast}: no syncs at all (synchronous=OFF). Survives application
+ * crashes; a power or OS failure can lose recent commits or corrupt the
+ * file. Meant for load tests and throwaway data.</li>
+ * </ul>
+ *
+ * Selected with {@code -Dticket.db.durability=strict|balanced|fast}.
+ */
+public enum DurabilityProfile {
+    STRICT(SQLiteConfig.SynchronousMode.FULL, 10_000, 1_000, 5_000),
+    BALANCED(SQLiteConfig.SynchronousMode.NORMAL, 5_000, 4_000, 2_000),
+    FAST(SQLiteConfig.SynchronousMode.OFF, 5_000, 16_000, 1_000);
+
+    /** SQLite's default page size; used to turn WAL page limits into bytes. */
+    private static final int PAGE_SIZE = 4_096;
+
+    private final SQLiteConfig.SynchronousMode synchronous;
+    private final int busyTimeoutMillis;
+    private final int walSizeLimitPages;
+    private final long checkpointIntervalMillis;
+
+    DurabilityProfile(SQLiteConfig.SynchronousMode synchronous, int busyTimeoutMillis,
+                      int walSizeLimitPages, long checkpointIntervalMillis) {
+        this.synchronous = synchronous;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.walSizeLimitPages = walSizeLimitPages;
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+    }
+
+    /** Profile named by {@code ticket.db.durability}, {@link #BALANCED} if unset. */
+    public static DurabilityProfile fromSystemProperty() {
+        String name = System.getProperty("ticket.db.durability", "balanced");
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown durability profile '" + name
+                    + "' (expected strict, balanced or fast)", e);
+        }
+    }
+
+    /**
+     * Connection settings for this profile. Synchronous level and busy timeout
+     * are per connection, so every pooled connection is opened with these.
+     */
+    SQLiteConfig toConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(synchronous);
+        config.setBusyTimeout(busyTimeoutMillis);
+        config.setPragma(SQLiteConfig.Pragma.JOURNAL_SIZE_LIMIT,
+                String.valueOf((long) walSizeLimitPages * PAGE_SIZE));
+        return config;
+    }
+
+    /** Per-connection settings the driver has no config key for. */
+    void configure(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            // SQLite's own checkpoint is a backstop; WalCheckpointer normally runs first
+            st.execute("PRAGMA wal_autocheckpoint = " + walSizeLimitPages);
+        }
+    }
+
+    public SQLiteConfig.SynchronousMode getSynchronous() {
+        return synchronous;
+    }
+
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+
+    /** WAL size, in pages, above which checkpoints truncate the log. */
+    public int getWalSizeLimitPages() {
+        return walSizeLimitPages;
+    }
+
+    public long getCheckpointIntervalMillis() {
+        return checkpointIntervalMillis;
+    }
+}
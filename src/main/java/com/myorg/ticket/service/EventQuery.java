@@ -0,0 +1,85 @@
+package com.myorg.ticket.service;
+
+import java.time.LocalDate;
+
+/**
+ * Filter for {@link EventService#query(EventQuery)}. Every criterion is
+ * optional; an empty query matches every event.
+ */
+public class EventQuery {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final String location;
+    private final String name;
+
+    private EventQuery(Builder b) {
+        this.from = b.from;
+        this.to = b.to;
+        this.location = b.location;
+        this.name = b.name;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private LocalDate from;
+        private LocalDate to;
+        private String location;
+        private String name;
+
+        /** Earliest event date, inclusive. */
+        public Builder from(LocalDate from) {
+            this.from = from;
+            return this;
+        }
+
+        /** Latest event date, inclusive. */
+        public Builder to(LocalDate to) {
+            this.to = to;
+            return this;
+        }
+
+        /** Case-insensitive substring of the event location. */
+        public Builder location(String location) {
+            this.location = blankToNull(location);
+            return this;
+        }
+
+        /** Case-insensitive substring of the event name. */
+        public Builder name(String name) {
+            this.name = blankToNull(name);
+            return this;
+        }
+
+        public EventQuery build() {
+            if (from != null && to != null && to.isBefore(from)) {
+                throw new IllegalStateException("Query end date is before its start date");
+            }
+            return new EventQuery(this);
+        }
+
+        private static String blankToNull(String s) {
+            return (s == null || s.isBlank()) ? null : s.trim();
+        }
+    }
+
+    // ─── Getters ────────────────────────────────────────────────────────────────
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
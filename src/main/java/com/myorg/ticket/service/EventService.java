@@ -2,54 +2,221 @@ package com.myorg.ticket.service;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import com.myorg.ticket.model.Event;
 import com.myorg.ticket.model.TicketCategory;
 
 public class EventService {
+    private static final Logger LOG = Logger.getLogger(EventService.class.getName());
+    private static final int CATALOG_SIZE = Integer.getInteger("ticket.cache.events", 1_024);
+
     private final PersistenceService db = PersistenceService.getInstance();
 
-    /** Persist a new Event (and its categories) into SQLite */
+    /**
+     * Event metadata (name, date, location, category names and prices) by id,
+     * shared by every EventService in the process. Cached events never leave
+     * this class: their ticket counts are stale the moment they are loaded,
+     * so callers get a copy with live counts instead.
+     */
+    private final LruCache<Integer, Event> catalog = Catalog.INSTANCE;
+
+    /** Event ids sorted by date, for date-range searches. */
+    private final EventTimeIndex timeIndex = EventTimeIndex.getInstance();
+
+    /** Words of event names and locations, for keyword searches. */
+    private final EventTextIndex textIndex = EventTextIndex.getInstance();
+
+    /** Persist a new Event (and its categories) into SQLite, in one transaction */
     public Event createEvent(Event event) {
+        Event saved;
         try {
-            // Save event and get the one with generated eventId
-            Event savedEvent = db.saveEvent(event);
-
-            for (TicketCategory cat : event.getCategories()) {
-                db.saveCategory(
-                        savedEvent.getEventId(),
-                        cat.getName(),
-                        cat.getPrice(),
-                        cat.getAvailable());
-            }
-            return savedEvent;
+            // saveEvent also writes the categories; one commit covers all rows
+            saved = db.inTransaction(() -> db.saveEvent(event));
         } catch (SQLException e) {
             throw new RuntimeException("Error saving event", e);
         }
+        // The event is committed from here on: an index that fails to catch
+        // up must not report the save as failed, or a retry duplicates it.
+        // Searches pick the event up once the refresh interval has passed.
+        try {
+            timeIndex.catchUp();
+        } catch (SQLException e) {
+            LOG.log(Level.WARNING, "Date index did not catch up with event " + saved.getEventId(), e);
+        }
+        try {
+            textIndex.catchUp();
+        } catch (SQLException e) {
+            LOG.log(Level.WARNING, "Text index did not catch up with event " + saved.getEventId(), e);
+        }
+        return saved;
     }
 
-    /** Search for events whose date falls in [start, end] */
+    /**
+     * Search for events whose date falls in [start, end], ordered by date.
+     * The range is resolved by the in-memory date index; only the matching
+     * events are read from the database, by id. Events created by other
+     * processes show up within {@code ticket.index.refreshMs}.
+     */
     public List<Event> search(LocalDate start, LocalDate end) {
+        return loadInOrder(searchIds(start, end));
+    }
+
+    /** Like {@link #search(LocalDate, LocalDate)}, but only the first {@code limit} events. */
+    public List<Event> search(LocalDate start, LocalDate end, int limit) {
+        int[] ids = searchIds(start, end);
+        return loadInOrder(ids.length > limit ? Arrays.copyOf(ids, Math.max(limit, 0)) : ids);
+    }
+
+    /**
+     * Ids of the events whose date falls in [start, end], ordered by date,
+     * straight from the date index. Either bound may be null for an open end.
+     */
+    public int[] searchIds(LocalDate start, LocalDate end) {
         try {
-            return db.loadEvents().stream()
-                    .filter(e -> {
-                        LocalDate d = e.getDateTime().toLocalDate();
-                        return !d.isBefore(start) && !d.isAfter(end);
-                    })
-                    .collect(Collectors.toList());
+            timeIndex.catchUpIfStale();
         } catch (SQLException e) {
             throw new RuntimeException("Error loading events", e);
         }
+        return timeIndex.idsBetween(from(start), to(end));
     }
 
-    /** Lookup a single event by int eventId */
+    /**
+     * Events whose name or location contains every word of {@code keywords}
+     * (whole words or word prefixes, ignoring case and accents), dated in
+     * [start, end], best match first; at most {@code limit}. Either date
+     * may be null for an open end.
+     */
+    public List<Event> searchText(String keywords, LocalDate start, LocalDate end, int limit) {
+        try {
+            textIndex.catchUpIfStale();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading events", e);
+        }
+        return loadInOrder(textIndex.search(keywords, from(start), to(end), limit));
+    }
+
+    private static long from(LocalDate start) {
+        return start != null ? TimestampCodec.startOfDay(start) : Long.MIN_VALUE;
+    }
+
+    private static long to(LocalDate end) {
+        return end != null ? TimestampCodec.startOfDay(end.plusDays(1)) : Long.MAX_VALUE;
+    }
+
+    /** The events with {@code ids}, in that order; ids that no longer exist are skipped. */
+    private List<Event> loadInOrder(int[] ids) {
+        try {
+            Map<Integer, Event> loaded = db.loadEventsByIds(ids);
+            List<Event> events = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                Event e = loaded.get(id);
+                if (e != null) {
+                    events.add(e);
+                }
+            }
+            return events;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading events", e);
+        }
+    }
+
+    /** Events matching every criterion set on {@code query}, ordered by date */
+    public List<Event> query(EventQuery query) {
+        try {
+            return db.findEvents(query);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading events", e);
+        }
+    }
+
+    /**
+     * Lookup a single event by int eventId. Metadata comes from the catalog
+     * cache; ticket counts are always read from the database.
+     */
     public Event findById(int eventId) {
         try {
-            return db.loadEventById(eventId);
+            Event cached = catalog.get(eventId, db::loadEventById);
+            if (cached == null) {
+                return null;
+            }
+            return withAvailability(cached, db.loadAvailability(eventId));
         } catch (SQLException e) {
             throw new RuntimeException("Error finding event", e);
         }
     }
+
+    /**
+     * Lookup many events at once, with live ticket counts, in chunked
+     * queries rather than one per id.
+     *
+     * @return the events found, keyed by id in the order requested; unknown
+     *         ids are absent.
+     */
+    public Map<Integer, Event> findByIds(Collection<Integer> eventIds) {
+        Collection<Integer> distinct = new LinkedHashSet<>(eventIds);
+        int[] ids = distinct.stream().mapToInt(Integer::intValue).toArray();
+        try {
+            Map<Integer, Event> loaded = db.loadEventsByIds(ids);
+            Map<Integer, Event> found = new LinkedHashMap<>();
+            for (int id : ids) {
+                Event e = loaded.get(id);
+                if (e != null) {
+                    found.put(id, e);
+                }
+            }
+            return found;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading events", e);
+        }
+    }
+
+    /** Tickets currently left in each category of an event, by category name */
+    public Map<String, Integer> availability(int eventId) {
+        try {
+            return db.loadAvailability(eventId);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading availability", e);
+        }
+    }
+
+    /** Hit ratio and evictions of the event catalog cache */
+    public CacheStats getCatalogStats() {
+        return catalog.stats();
+    }
+
+    private static Event withAvailability(Event event, Map<String, Integer> available) {
+        Event.Builder copy = Event.builder()
+                .eventId(event.getEventId())
+                .uuid(event.getUuid())
+                .name(event.getName())
+                .dateTime(event.getDateTime())
+                .location(event.getLocation());
+        for (TicketCategory cat : event.getCategories()) {
+            copy.addCategory(cat.getCategoryId(), cat.getName(), cat.getPrice(),
+                    available.getOrDefault(cat.getName(), cat.getAvailable()));
+        }
+        return copy.build();
+    }
+
+    /**
+     * Created on first use. Category writes through {@link PersistenceService}
+     * (new categories, price or stock changes) drop the event's entry once
+     * committed; changes made by other processes show after eviction.
+     */
+    private static final class Catalog {
+        private static final LruCache<Integer, Event> INSTANCE = new LruCache<>(CATALOG_SIZE);
+
+        static {
+            PersistenceService.getInstance().onCategoriesChanged(INSTANCE::invalidate);
+        }
+    }
 }
@@ -0,0 +1,390 @@
+package com.myorg.ticket.service;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the words of every event's name and location. Each
+ * word maps to the ids of the events containing it, in ascending order; the
+ * words are kept sorted, so a query word also matches every indexed word it
+ * is a prefix of ("cold" finds "Coldplay").
+ *
+ * Words are compared case- and accent-insensitively ("istanbul" matches
+ * "İstanbul"). An event matches when every query word matches one of its
+ * words. Matches rank by score, then by date: a word found in the name
+ * outweighs one in the location, and a whole-word match outweighs a prefix.
+ *
+ * Like {@link EventTimeIndex}, the index catches up by loading events above
+ * the highest id it has seen, after each local commit and, for other
+ * processes' events, at most once per {@code ticket.index.refreshMs} from
+ * {@link #catchUpIfStale()}; since ids only grow, new postings are simply
+ * appended. Queries share a read lock and never wait for the database.
+ */
+final class EventTextIndex {
+    private static final long REFRESH_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("ticket.index.refreshMs", 1_000));
+
+    private static EventTextIndex instance;
+
+    /** Query words beyond this are ignored; keeps scores in a few bits. */
+    static final int MAX_QUERY_WORDS = 8;
+
+    private static final int NAME_WORD = 8;
+    private static final int NAME_PREFIX = 4;
+    private static final int LOCATION_WORD = 2;
+    private static final int LOCATION_PREFIX = 1;
+    private static final int IN_NAME = 1;
+    private static final int IN_LOCATION = 2;
+
+    private final PersistenceService db;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Held while loading new events; one catch-up at a time. */
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+    private volatile long caughtUpAt;
+
+    /** Word to postings; guarded by {@link #lock}. */
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+    /** Event date as epoch minutes, by event id; guarded by {@link #lock}. */
+    private int[] minutesById = new int[16];
+    private int maxId;
+
+    EventTextIndex(PersistenceService db) {
+        this.db = db;
+        try {
+            catchUp();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load event text", e);
+        }
+    }
+
+    static synchronized EventTextIndex getInstance() {
+        if (instance == null) {
+            instance = new EventTextIndex(PersistenceService.getInstance());
+        }
+        return instance;
+    }
+
+    /** Adds events committed since the last call. */
+    void catchUp() throws SQLException {
+        catchUpLock.lock();
+        try {
+            load();
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    /** Catches up if the refresh interval has passed and no other thread is doing so. */
+    void catchUpIfStale() throws SQLException {
+        if (System.nanoTime() - caughtUpAt > REFRESH_NANOS && catchUpLock.tryLock()) {
+            try {
+                if (System.nanoTime() - caughtUpAt > REFRESH_NANOS) {
+                    load();
+                }
+            } finally {
+                catchUpLock.unlock();
+            }
+        }
+    }
+
+    /** Caller holds {@link #catchUpLock}. */
+    private void load() throws SQLException {
+        long start = System.nanoTime();
+        // Read outside the write lock, so queries keep running meanwhile
+        List<Row> fresh = new ArrayList<>();
+        db.loadEventTexts(maxId, (id, dateTime, name, location) ->
+                fresh.add(new Row(id, dateTime, name, location)));
+        if (!fresh.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                for (Row row : fresh) {
+                    add(row.eventId, row.dateTime, row.name, row.location);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        caughtUpAt = start;
+    }
+
+    private void add(int eventId, long dateTime, String name, String location) {
+        Map<String, Integer> fields = new HashMap<>();
+        for (String w : tokenize(name)) {
+            fields.merge(w, IN_NAME, (a, b) -> a | b);
+        }
+        for (String w : tokenize(location)) {
+            fields.merge(w, IN_LOCATION, (a, b) -> a | b);
+        }
+        fields.forEach((w, mask) -> words.computeIfAbsent(w, k -> new Postings()).add(eventId, mask));
+
+        if (eventId >= minutesById.length) {
+            minutesById = Arrays.copyOf(minutesById, Math.max(eventId + 1, minutesById.length * 2));
+        }
+        minutesById[eventId] = (int) Math.floorDiv(dateTime, 60_000_000L);
+        maxId = Math.max(maxId, eventId);
+    }
+
+    /**
+     * Ids of the events matching every word of {@code text} and dated in
+     * [from, to) (epoch microseconds, compared to the minute), best first;
+     * at most {@code limit}.
+     */
+    int[] search(String text, long from, long to, int limit) {
+        List<String> query = new ArrayList<>(tokenize(text));
+        if (query.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        if (query.size() > MAX_QUERY_WORDS) {
+            query = query.subList(0, MAX_QUERY_WORDS);
+        }
+        int fromMinute = (int) Math.max(Integer.MIN_VALUE, Math.floorDiv(from, 60_000_000L));
+        long toMinute = to == Long.MAX_VALUE ? Long.MAX_VALUE : Math.floorDiv(to - 1, 60_000_000L);
+
+        lock.readLock().lock();
+        try {
+            // ids ascending, with the summed score of every word so far
+            int[] ids = null;
+            int[] scores = null;
+            int size = 0;
+            for (String word : query) {
+                long[] matches = matches(word);
+                if (ids == null) {
+                    ids = new int[matches.length];
+                    scores = new int[matches.length];
+                    for (long m : matches) {
+                        ids[size] = (int) (m >>> 32);
+                        scores[size++] = (int) m;
+                    }
+                } else {
+                    int[] keptIds = new int[Math.min(size, matches.length) + 1];
+                    int[] keptScores = new int[keptIds.length];
+                    size = intersect(ids, scores, size, matches, keptIds, keptScores);
+                    ids = keptIds;
+                    scores = keptScores;
+                }
+                if (size == 0) {
+                    return new int[0];
+                }
+            }
+            return rank(ids, scores, size, fromMinute, toMinute, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Events with {@code word} or a word starting with it, as {@code id << 32 | score}, by id. */
+    private long[] matches(String word) {
+        NavigableMap<String, Postings> hits = words.subMap(word, true, word + Character.MAX_VALUE, false);
+        int total = 0;
+        for (Postings p : hits.values()) {
+            total += p.size;
+        }
+        long[] out = new long[total];
+        int n = 0;
+        for (Map.Entry<String, Postings> e : hits.entrySet()) {
+            boolean whole = e.getKey().length() == word.length();
+            Postings p = e.getValue();
+            for (int i = 0; i < p.size; i++) {
+                int mask = p.masks[i];
+                int score = Math.max((mask & IN_NAME) != 0 ? (whole ? NAME_WORD : NAME_PREFIX) : 0,
+                        (mask & IN_LOCATION) != 0 ? (whole ? LOCATION_WORD : LOCATION_PREFIX) : 0);
+                out[n++] = (long) p.ids[i] << 32 | score;
+            }
+        }
+        if (hits.size() > 1) {
+            // several words: merge their postings, keeping each event's best score
+            Arrays.sort(out);
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                if (kept > 0 && out[kept - 1] >>> 32 == out[i] >>> 32) {
+                    out[kept - 1] = out[i]; // same id, sorted so the later score is higher
+                } else {
+                    out[kept++] = out[i];
+                }
+            }
+            out = Arrays.copyOf(out, kept);
+        }
+        return out;
+    }
+
+    /**
+     * Ids present in both {@code ids} and {@code matches}, written to
+     * {@code outIds} with their scores summed; returns how many.
+     */
+    private static int intersect(int[] ids, int[] scores, int size, long[] matches,
+                                 int[] outIds, int[] outScores) {
+        int kept = 0;
+        int i = 0;
+        int j = 0;
+        // Written without data-dependent branches: ids interleave unpredictably
+        while (i < size && j < matches.length) {
+            int id = ids[i];
+            int other = (int) (matches[j] >>> 32);
+            outIds[kept] = id;
+            outScores[kept] = scores[i] + (int) matches[j];
+            kept += id == other ? 1 : 0;
+            i += id <= other ? 1 : 0;
+            j += id >= other ? 1 : 0;
+        }
+        return kept;
+    }
+
+    /** Best score first, then earliest date, then lowest id. */
+    private int[] rank(int[] ids, int[] scores, int size, int fromMinute, long toMinute, int limit) {
+        TopK best = new TopK(Math.min(limit, size));
+        for (int i = 0; i < size; i++) {
+            int minute = minutesById[ids[i]];
+            if (minute >= fromMinute && minute <= toMinute) {
+                best.offer(scores[i], (long) minute << 32 | ids[i]);
+            }
+        }
+        return best.drain();
+    }
+
+    /**
+     * The {@code capacity} best of a stream of (score, date-and-id key)
+     * pairs, kept in a heap whose root is the worst of them; O(n log k)
+     * rather than sorting every match.
+     */
+    private static final class TopK {
+        private final int[] scores;
+        private final long[] keys;
+        private int size;
+
+        private TopK(int capacity) {
+            scores = new int[capacity];
+            keys = new long[capacity];
+        }
+
+        private void offer(int score, long key) {
+            if (size < scores.length) {
+                scores[size] = score;
+                keys[size] = key;
+                siftUp(size++);
+            } else if (size > 0 && better(score, key, scores[0], keys[0])) {
+                scores[0] = score;
+                keys[0] = key;
+                siftDown(0);
+            }
+        }
+
+        /** Event ids, best first; empties the heap. */
+        private int[] drain() {
+            int[] ids = new int[size];
+            while (size > 0) {
+                ids[size - 1] = (int) keys[0];
+                size--;
+                scores[0] = scores[size];
+                keys[0] = keys[size];
+                siftDown(0);
+            }
+            return ids;
+        }
+
+        private static boolean better(int score, long key, int otherScore, long otherKey) {
+            return score > otherScore || (score == otherScore && key < otherKey);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!better(scores[parent], keys[parent], scores[i], keys[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int worst = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (better(scores[worst], keys[worst], scores[child], keys[child])) {
+                        worst = child;
+                    }
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int s = scores[a];
+            scores[a] = scores[b];
+            scores[b] = s;
+            long k = keys[a];
+            keys[a] = keys[b];
+            keys[b] = k;
+        }
+    }
+
+    /** Lower-cased words of {@code text} with accents removed, in order, without repeats. */
+    static Set<String> tokenize(String text) {
+        Set<String> out = new LinkedHashSet<>();
+        if (text == null) {
+            return out;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c == 'ı' ? 'i' : Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                out.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return out;
+    }
+
+    private static final class Row {
+        private final int eventId;
+        private final long dateTime;
+        private final String name;
+        private final String location;
+
+        private Row(int eventId, long dateTime, String name, String location) {
+            this.eventId = eventId;
+            this.dateTime = dateTime;
+            this.name = name;
+            this.location = location;
+        }
+    }
+
+    /** Growable, id-ordered postings of one word. */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private byte[] masks = new byte[2];
+        private int size;
+
+        private void add(int eventId, int mask) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                masks = Arrays.copyOf(masks, size * 2);
+            }
+            ids[size] = eventId;
+            masks[size++] = (byte) mask;
+        }
+    }
+}
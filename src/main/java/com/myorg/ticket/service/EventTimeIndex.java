@@ -0,0 +1,170 @@
+package com.myorg.ticket.service;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Every event's date, as epoch microseconds, in a sorted {@code long[]}
+ * next to an {@code int[]} of the matching event ids. A date range is two
+ * binary searches and one array copy: no boxing, no {@code LocalDateTime}.
+ *
+ * Readers use an immutable snapshot and never block. Events are never
+ * updated or deleted, and SQLite hands out ids in commit order, so the
+ * highest id seen is a complete watermark: {@link #catchUp()} loads only
+ * events above it and merges them in. Events created through this process
+ * are caught up right after their commit. Events created by other processes
+ * are picked up by {@link #catchUpIfStale()}, which costs searches at most
+ * one primary-key probe per {@code ticket.index.refreshMs} (default one
+ * second) and never makes them wait for one already running.
+ */
+final class EventTimeIndex {
+    private static final long REFRESH_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("ticket.index.refreshMs", 1_000));
+
+    private static EventTimeIndex instance;
+
+    private final PersistenceService db;
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new int[0], 0);
+    /** {@link System#nanoTime()} at the start of the last completed catch-up. */
+    private volatile long caughtUpAt;
+
+    private EventTimeIndex(PersistenceService db) {
+        this.db = db;
+        try {
+            catchUp();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load event dates", e);
+        }
+    }
+
+    static synchronized EventTimeIndex getInstance() {
+        if (instance == null) {
+            instance = new EventTimeIndex(PersistenceService.getInstance());
+        }
+        return instance;
+    }
+
+    /** Adds events committed since the last call. */
+    void catchUp() throws SQLException {
+        catchUpLock.lock();
+        try {
+            load();
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    /**
+     * Catches up if the last catch-up is older than the refresh interval,
+     * unless another thread is already at it.
+     */
+    void catchUpIfStale() throws SQLException {
+        if (isStale() && catchUpLock.tryLock()) {
+            try {
+                if (isStale()) {
+                    load();
+                }
+            } finally {
+                catchUpLock.unlock();
+            }
+        }
+    }
+
+    private boolean isStale() {
+        return System.nanoTime() - caughtUpAt > REFRESH_NANOS;
+    }
+
+    /** Caller holds {@link #catchUpLock}. */
+    private void load() throws SQLException {
+        long start = System.nanoTime();
+        Snapshot current = snapshot;
+        Batch fresh = new Batch();
+        db.loadEventTimes(current.maxId, fresh::add);
+        if (fresh.size > 0) {
+            snapshot = current.merge(fresh);
+        }
+        caughtUpAt = start;
+    }
+
+    /** Ids of events dated in [from, to), ordered by date, then id. */
+    int[] idsBetween(long from, long to) {
+        Snapshot s = snapshot;
+        int lo = lowerBound(s.times, from);
+        int hi = Math.max(lo, lowerBound(s.times, to));
+        return Arrays.copyOfRange(s.ids, lo, hi);
+    }
+
+    int size() {
+        return snapshot.ids.length;
+    }
+
+    /** First position whose time is at least {@code key}. */
+    private static int lowerBound(long[] times, long key) {
+        int lo = 0;
+        int hi = times.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static final class Snapshot {
+        private final long[] times;
+        private final int[] ids;
+        private final int maxId;
+
+        private Snapshot(long[] times, int[] ids, int maxId) {
+            this.times = times;
+            this.ids = ids;
+            this.maxId = maxId;
+        }
+
+        /** A new snapshot with {@code batch}, already sorted, merged in. */
+        private Snapshot merge(Batch batch) {
+            int n = ids.length + batch.size;
+            long[] mergedTimes = new long[n];
+            int[] mergedIds = new int[n];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < n; k++) {
+                boolean fromBatch = i == ids.length
+                        || (j < batch.size && (batch.times[j] < times[i]
+                                || (batch.times[j] == times[i] && batch.ids[j] < ids[i])));
+                if (fromBatch) {
+                    mergedTimes[k] = batch.times[j];
+                    mergedIds[k] = batch.ids[j++];
+                } else {
+                    mergedTimes[k] = times[i];
+                    mergedIds[k] = ids[i++];
+                }
+            }
+            return new Snapshot(mergedTimes, mergedIds, Math.max(maxId, batch.maxId));
+        }
+    }
+
+    /** Growable buffer for the rows of one catch-up. */
+    private static final class Batch {
+        private long[] times = new long[16];
+        private int[] ids = new int[16];
+        private int size;
+        private int maxId;
+
+        private void add(int eventId, long dateTime) {
+            if (size == ids.length) {
+                times = Arrays.copyOf(times, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            times[size] = dateTime;
+            ids[size++] = eventId;
+            maxId = Math.max(maxId, eventId);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.myorg.ticket.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Funnels concurrent units of work through a single writer thread that
+ * commits them in batches.
+ *
+ * SQLite serializes writers anyway, so instead of each caller paying for its
+ * own commit (and fsync), the writer drains up to {@code maxBatchSize} queued
+ * requests, waiting at most {@code maxLinger} for stragglers, and runs them
+ * in one transaction. Each request runs under its own savepoint, so a request
+ * that fails (e.g. sold out) is undone alone without aborting its batch.
+ * Futures complete only after the batch has committed.
+ */
+class GroupCommitWriter implements AutoCloseable {
+    private final PersistenceService db;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    GroupCommitWriter(PersistenceService db, int maxBatchSize, Duration maxLinger) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        if (maxLinger.isNegative()) {
+            throw new IllegalArgumentException("Linger time must not be negative");
+        }
+        this.db = db;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.writer = new Thread(this::run, "group-commit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues {@code work}; the future completes once its batch is durable, or
+     * fails at once if the writer has been closed.
+     */
+    <T> CompletableFuture<T> submit(PersistenceService.TransactionCallback<T> work) {
+        Pending<T> pending = new Pending<>(work);
+        if (!running) {
+            pending.future.completeExceptionally(closed());
+            return pending.future;
+        }
+        queue.add(pending);
+        // close() may have run since the check; if the writer has not taken
+        // the request by now it may never do so, so take it back and fail it
+        if (!running && queue.remove(pending)) {
+            pending.future.completeExceptionally(closed());
+        }
+        return pending.future;
+    }
+
+    private static ServiceClosedException closed() {
+        return new ServiceClosedException("Group commit writer is closed");
+    }
+
+    private void run() {
+        List<Pending<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+
+                // Linger briefly so concurrent callers can share this commit
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<?> next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commit(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending<?>> batch) {
+        try {
+            db.inTransaction(() -> {
+                for (Pending<?> p : batch) {
+                    p.execute();
+                }
+                return null;
+            });
+        } catch (Throwable e) {
+            // The whole batch rolled back, including requests that had succeeded
+            for (Pending<?> p : batch) {
+                p.fail(e);
+            }
+            return;
+        }
+        for (Pending<?> p : batch) {
+            p.complete();
+        }
+    }
+
+    /** Stops accepting work and waits for queued requests to be committed. */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Only left behind if the writer was interrupted
+        Pending<?> left;
+        while ((left = queue.poll()) != null) {
+            left.future.completeExceptionally(closed());
+        }
+    }
+
+    private final class Pending<T> {
+        private final PersistenceService.TransactionCallback<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Throwable error;
+
+        private Pending(PersistenceService.TransactionCallback<T> work) {
+            this.work = work;
+        }
+
+        private void execute() {
+            try {
+                result = db.inSavepoint(work);
+            } catch (Throwable e) {
+                error = e; // keeps the writer thread alive for the rest of the batch
+            }
+        }
+
+        private void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+
+        private void fail(Throwable batchError) {
+            future.completeExceptionally(error != null ? error : batchError);
+        }
+    }
+}
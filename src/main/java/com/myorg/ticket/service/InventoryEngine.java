@@ -0,0 +1,212 @@
+package com.myorg.ticket.service;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory mirror of {@code ticket_categories.available}, one counter per
+ * (event, category), so requests for sold-out categories are turned away
+ * without touching SQLite.
+ *
+ * The database stays the authority: a reservation the counters admit still
+ * runs the guarded decrement, so a stale counter can never oversell. Counters
+ * change only through {@link PersistenceService#afterCommit}, i.e. after the
+ * change is committed and before the writer is released, so once a commit's
+ * actions have run they equal the committed state of every reservation and
+ * cancellation made through this process. A reload only publishes what it
+ * read if no such commit was under way meanwhile (see
+ * {@link PersistenceService#commitStamp()}), so it never counts a change its
+ * pending action is about to apply again. Category writes through {@link PersistenceService} drop the
+ * event's counters, which are reloaded on next use. Nothing is kept across
+ * restarts: counters are reloaded from the database, so after a crash they
+ * agree with whatever was committed.
+ *
+ * Writes from other processes (another app on the same database file) are
+ * not seen directly. A rejection is therefore only trusted while the event's
+ * counters are younger than {@code ticket.inventory.maxStalenessMs} (default
+ * one second); an older counter is reloaded before turning a request away,
+ * so tickets put back elsewhere become reservable again within that window.
+ * Reloads read on a reader connection and never wait for the writer.
+ */
+final class InventoryEngine {
+    private static final long MAX_STALENESS_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("ticket.inventory.maxStalenessMs", 1_000));
+    private static final int MISSING_EVENTS = Integer.getInteger("ticket.inventory.missingEvents", 1_024);
+    private static final int LOCK_FREE_RELOADS = 3;
+
+    private static InventoryEngine instance;
+
+    /** Whether the counters let a request through to the database. */
+    enum Admission {
+        ADMIT,
+        /** Fewer tickets left than requested. */
+        SOLD_OUT,
+        /** No such event, or no such category for it. */
+        UNKNOWN
+    }
+
+    private final PersistenceService db;
+    private final Map<Integer, EventCounters> counters = new ConcurrentHashMap<>();
+    /** Ids with no categories, and when that was read, so repeated misses skip the database. */
+    private final LruCache<Integer, Long> missing = new LruCache<>(MISSING_EVENTS);
+
+    private InventoryEngine(PersistenceService db) {
+        this.db = db;
+        try {
+            // Under the writer, so no commit slips in between load and publish
+            db.inTransaction(() -> {
+                synchronized (this) {
+                    db.loadInventory().forEach(this::publish);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load inventory", e);
+        }
+        db.onCategoriesChanged(this::forget);
+    }
+
+    static synchronized InventoryEngine getInstance() {
+        if (instance == null) {
+            instance = new InventoryEngine(PersistenceService.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Whether a request for {@code quantity} tickets should go to the
+     * database. Events created since startup are loaded on first use; a
+     * rejection based on counters older than the staleness window reloads
+     * the event first.
+     */
+    Admission admit(int eventId, String categoryName, int quantity) throws SQLException {
+        Admission admission;
+        EventCounters event = counters.get(eventId);
+        if (event == null) {
+            Long checkedAt = missing.get(eventId);
+            admission = checkedAt != null && !isStale(checkedAt)
+                    ? Admission.UNKNOWN
+                    : reload(eventId).admit(categoryName, quantity);
+        } else {
+            admission = event.admit(categoryName, quantity);
+            if (admission != Admission.ADMIT && isStale(event.loadedAt)) {
+                admission = reload(eventId).admit(categoryName, quantity);
+            }
+        }
+        return admission;
+    }
+
+    /** Tickets left according to the counters, or -1 if the category is unknown. */
+    int available(int eventId, String categoryName) {
+        EventCounters event = counters.get(eventId);
+        AtomicInteger counter = event == null ? null : event.categories.get(categoryName);
+        return counter == null ? -1 : counter.get();
+    }
+
+    /** Records a committed reservation; call from an after-commit action. */
+    void reserved(int eventId, String categoryName, int quantity) {
+        adjust(eventId, categoryName, -quantity);
+    }
+
+    /** Records committed restored tickets; call from an after-commit action. */
+    void restored(int eventId, String categoryName, int quantity) {
+        adjust(eventId, categoryName, quantity);
+    }
+
+    /** Reloads an event's counters from the database. */
+    void refresh(int eventId) throws SQLException {
+        reload(eventId);
+    }
+
+    /**
+     * Reloads an event's counters from the database and returns them.
+     *
+     * The read runs on a reader connection and is retried if a commit of
+     * this process overlapped it: the read may or may not include that
+     * commit, and its after-commit adjustment cannot tell. Only under
+     * constant writes does it fall back to reading under the writer, where
+     * no commit can interleave.
+     */
+    private EventCounters reload(int eventId) throws SQLException {
+        for (int attempt = 0; attempt < LOCK_FREE_RELOADS; attempt++) {
+            long stamp = db.commitStamp();
+            if (stamp < 0) {
+                continue; // actions pending: the read could not be trusted
+            }
+            Map<String, Integer> available = db.loadAvailability(eventId);
+            // Under the lock, so a commit's adjustment lands either before
+            // this check (and fails it) or after the publish (and applies)
+            synchronized (this) {
+                if (db.noCommitSince(stamp)) {
+                    return publish(eventId, available);
+                }
+            }
+        }
+        return db.inTransaction(() -> {
+            Map<String, Integer> available = db.loadAvailability(eventId);
+            synchronized (this) {
+                return publish(eventId, available);
+            }
+        });
+    }
+
+    private synchronized void adjust(int eventId, String categoryName, int delta) {
+        EventCounters event = counters.get(eventId);
+        AtomicInteger counter = event == null ? null : event.categories.get(categoryName);
+        if (counter != null) {
+            counter.addAndGet(delta);
+        }
+        // else: not loaded yet; the first lookup reads the committed value
+    }
+
+    /** Drops an event whose categories changed; the next request reloads it. */
+    private synchronized void forget(int eventId) {
+        counters.remove(eventId);
+        missing.invalidate(eventId);
+    }
+
+    /** Caller holds {@code this}. */
+    private EventCounters publish(int eventId, Map<String, Integer> available) {
+        long now = System.nanoTime();
+        if (available.isEmpty()) {
+            counters.remove(eventId);
+            missing.put(eventId, now);
+            return EventCounters.NONE;
+        }
+        Map<String, AtomicInteger> categories = new HashMap<>();
+        available.forEach((name, count) -> categories.put(name, new AtomicInteger(count)));
+        EventCounters event = new EventCounters(categories, now);
+        counters.put(eventId, event);
+        missing.invalidate(eventId);
+        return event;
+    }
+
+    private static boolean isStale(long loadedAt) {
+        return System.nanoTime() - loadedAt > MAX_STALENESS_NANOS;
+    }
+
+    /** Counters of one event as of {@code loadedAt}; the category set is fixed. */
+    private static final class EventCounters {
+        private static final EventCounters NONE = new EventCounters(Map.of(), 0);
+
+        private final Map<String, AtomicInteger> categories;
+        private final long loadedAt;
+
+        private EventCounters(Map<String, AtomicInteger> categories, long loadedAt) {
+            this.categories = categories;
+            this.loadedAt = loadedAt;
+        }
+
+        private Admission admit(String categoryName, int quantity) {
+            AtomicInteger counter = categories.get(categoryName);
+            if (counter == null) {
+                return Admission.UNKNOWN;
+            }
+            return counter.get() < quantity ? Admission.SOLD_OUT : Admission.ADMIT;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.myorg.ticket.service;
+
+/** Point-in-time view of one reservation lane's backlog and service times. */
+public final class LaneStats {
+    private final int lane;
+    private final int queueDepth;
+    private final long completed;
+    private final long totalWaitNanos;
+    private final long totalServiceNanos;
+    private final long maxServiceNanos;
+
+    LaneStats(int lane, int queueDepth, long completed, long totalWaitNanos,
+              long totalServiceNanos, long maxServiceNanos) {
+        this.lane = lane;
+        this.queueDepth = queueDepth;
+        this.completed = completed;
+        this.totalWaitNanos = totalWaitNanos;
+        this.totalServiceNanos = totalServiceNanos;
+        this.maxServiceNanos = maxServiceNanos;
+    }
+
+    public int getLane() {
+        return lane;
+    }
+
+    /** Requests queued behind the one currently running. */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    /** Time requests spent queued before the lane picked them up. */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    /** Time the lane spent running requests. */
+    public long getTotalServiceNanos() {
+        return totalServiceNanos;
+    }
+
+    public long getMaxServiceNanos() {
+        return maxServiceNanos;
+    }
+
+    public double getAverageWaitMicros() {
+        return completed == 0 ? 0.0 : totalWaitNanos / 1_000.0 / completed;
+    }
+
+    public double getAverageServiceMicros() {
+        return completed == 0 ? 0.0 : totalServiceNanos / 1_000.0 / completed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "lane %d: %d queued, %d completed, avg wait %.1f us, avg service %.1f us, max service %.1f us",
+                lane, queueDepth, completed, getAverageWaitMicros(), getAverageServiceMicros(),
+                maxServiceNanos / 1_000.0);
+    }
+}
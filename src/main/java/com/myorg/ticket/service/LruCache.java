@@ -0,0 +1,111 @@
+package com.myorg.ticket.service;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread-safe map that evicts its least recently used entry once it
+ * holds more than {@code capacity} entries.
+ *
+ * Values are loaded outside the lock, so a slow load never blocks readers of
+ * other keys; two threads missing on the same key may both load it, and the
+ * last one wins. A load that overlaps an invalidation is returned but not
+ * cached, since it may predate the change. Missing values (a loader returning
+ * null) are not cached.
+ */
+final class LruCache<K, V> {
+
+    /** Loads the value for a key on a cache miss; may return null. */
+    @FunctionalInterface
+    interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private final int capacity;
+    private final Map<K, V> entries;
+
+    private long invalidations; // guarded by entries
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    LruCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= LruCache.this.capacity) {
+                    return false;
+                }
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /** The cached value for {@code key}, or null; counts a hit or a miss. */
+    V get(K key) {
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        (value != null ? hits : misses).incrementAndGet();
+        return value;
+    }
+
+    /** The cached value for {@code key}, loading and caching it on a miss. */
+    V get(K key, Loader<K, V> loader) throws SQLException {
+        V value = get(key);
+        if (value == null) {
+            long stamp = stamp();
+            value = loader.load(key);
+            if (value != null) {
+                putIfUnchanged(key, value, stamp);
+            }
+        }
+        return value;
+    }
+
+    /** Stamp to take before loading values to cache with {@link #putIfUnchanged}. */
+    long stamp() {
+        synchronized (entries) {
+            return invalidations;
+        }
+    }
+
+    /** Caches a loaded value unless something was invalidated since {@code stamp}. */
+    void putIfUnchanged(K key, V value, long stamp) {
+        synchronized (entries) {
+            if (invalidations == stamp) {
+                entries.put(key, value);
+            }
+        }
+    }
+
+    void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, value);
+        }
+    }
+
+    void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+            invalidations++;
+        }
+    }
+
+    CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(capacity, size, hits.get(), misses.get(), evictions.get());
+    }
+}
@@ -8,74 +8,65 @@ import com.myorg.ticket.model.User;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class PersistenceService {
-    private static final String URL = "jdbc:sqlite:data/tickets.db";
+    private static final Logger LOG = Logger.getLogger(PersistenceService.class.getName());
+    private static final int READERS = Integer.getInteger("ticket.db.readers", 4);
+    private static final long POOL_TIMEOUT_MS = Long.getLong("ticket.db.poolTimeoutMs", 5_000L);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("ticket.db.statementCacheSize", 64);
     private static PersistenceService instance;
 
-    private PersistenceService() {
-        try (Connection conn = DriverManager.getConnection(URL);
-             Statement st = conn.createStatement()) {
-
-            // Events table
-            st.execute("""
-                CREATE TABLE IF NOT EXISTS events (
-                  event_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                  uuid TEXT NOT NULL,
-                  name TEXT NOT NULL,
-                  date_time TEXT NOT NULL,
-                  location TEXT NOT NULL
-                )
-            """);
-
-            // Ticket categories
-            st.execute("""
-                CREATE TABLE IF NOT EXISTS ticket_categories (
-                  event_id INTEGER NOT NULL,
-                  category_name TEXT NOT NULL,
-                  price REAL NOT NULL,
-                  available INTEGER NOT NULL,
-                  PRIMARY KEY (event_id, category_name),
-                  FOREIGN KEY(event_id) REFERENCES events(event_id)
-                )
-            """);
-
-            // Reservations
-            st.execute("""
-                CREATE TABLE IF NOT EXISTS reservations (
-                  id TEXT PRIMARY KEY,
-                  event_id INTEGER NOT NULL,
-                  category_name TEXT NOT NULL,
-                  quantity INTEGER NOT NULL,
-                  reserved_at TEXT NOT NULL,
-                  FOREIGN KEY(event_id, category_name) REFERENCES ticket_categories(event_id, category_name)
-                )
-            """);
+    /** Read when the instance is created, so it can be set any time before first use. */
+    private final String url = System.getProperty("ticket.db.url", "jdbc:sqlite:data/tickets.db");
+    private final DurabilityProfile durability = DurabilityProfile.fromSystemProperty();
+    private final ConnectionPool pool =
+            new ConnectionPool(url, READERS, POOL_TIMEOUT_MS, STATEMENT_CACHE_SIZE, durability);
+    private final WalCheckpointer checkpointer;
 
-            // Users table
-            st.execute("""
-                CREATE TABLE IF NOT EXISTS users (
-                  id TEXT PRIMARY KEY,
-                  username TEXT NOT NULL UNIQUE
-                )
-            """);
-
-            // User → Reservation link table
-            st.execute("""
-                CREATE TABLE IF NOT EXISTS user_reservations (
-                  user_id TEXT NOT NULL,
-                  reservation_id TEXT NOT NULL,
-                  PRIMARY KEY (user_id, reservation_id),
-                  FOREIGN KEY(user_id) REFERENCES users(id),
-                  FOREIGN KEY(reservation_id) REFERENCES reservations(id)
-                )
-            """);
+    /** Actions of the open transaction; only the writer lease holder touches it. */
+    private final List<Runnable> afterCommit = new ArrayList<>();
 
+    /**
+     * Commits that had after-commit actions: how many began committing, and
+     * how many have run their actions. Only the writer lease holder changes
+     * them; see {@link #commitStamp()}.
+     */
+    private volatile long actionCommitsStarted;
+    private volatile long actionCommitsSettled;
+
+    /** Told the event id whenever its categories change; see {@link #onCategoriesChanged}. */
+    private final List<IntConsumer> categoryListeners = new CopyOnWriteArrayList<>();
+
+    private PersistenceService() {
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            new SchemaMigrator().migrate(lease.connection());
         } catch (SQLException e) {
             throw new RuntimeException("Failed to init DB", e);
         }
+        try {
+            checkpointer = new WalCheckpointer(url, durability);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to start WAL checkpointer", e);
+        }
+        // Closing the last connection folds the WAL back into tickets.db
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "persistence-shutdown"));
+    }
+
+    private void close() {
+        checkpointer.close();
+        pool.close();
     }
 
     public static synchronized PersistenceService getInstance() {
@@ -85,18 +76,163 @@ public class PersistenceService {
         return instance;
     }
 
-    public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
+    /** The journal/sync settings every connection was opened with. */
+    public DurabilityProfile getDurabilityProfile() {
+        return durability;
+    }
+
+    /** Wait-time and utilization counters of the connection pool. */
+    public PoolStats getPoolStats() {
+        return pool.stats();
+    }
+
+    // -- Unit of work -----------------------------------------------------
+
+    /** A group of persistence calls that must commit or roll back together. */
+    @FunctionalInterface
+    public interface TransactionCallback<T> {
+        T execute() throws SQLException;
+    }
+
+    /**
+     * Runs {@code work} as a single transaction on the writer connection.
+     *
+     * Every PersistenceService call made by {@code work} on this thread reuses
+     * the same connection, so they all land in one commit (and one fsync).
+     * Any exception or error rolls the whole unit back. Nested calls join the
+     * enclosing transaction instead of starting their own.
+     */
+    public <T> T inTransaction(TransactionCallback<T> work) throws SQLException {
+        try (ConnectionPool.Lease c = pool.writer()) {
+            Connection conn = c.connection();
+            if (!conn.getAutoCommit()) {
+                return work.execute(); // already inside a unit of work
+            }
+            conn.setAutoCommit(false);
+            boolean tracked = false;
+            try {
+                T result = work.execute();
+                tracked = !afterCommit.isEmpty();
+                if (tracked) {
+                    actionCommitsStarted++; // before the commit can become visible
+                }
+                conn.commit();
+                runAfterCommit();
+                return result;
+            } catch (Throwable e) {
+                // Errors too: re-enabling auto-commit below would commit the half-done unit
+                conn.rollback();
+                throw e;
+            } finally {
+                if (tracked) {
+                    actionCommitsSettled++;
+                }
+                afterCommit.clear();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} once the current transaction has committed, while
+     * this thread still holds the writer, so actions from successive
+     * transactions run in commit order. If the transaction (or the savepoint
+     * the action was registered under) rolls back, the action is dropped.
+     * Outside a transaction it runs immediately.
+     */
+    public void afterCommit(Runnable action) throws SQLException {
+        try (ConnectionPool.Lease c = pool.writer()) {
+            if (c.connection().getAutoCommit()) {
+                action.run();
+            } else {
+                afterCommit.add(action);
+            }
+        }
+    }
+
+    /**
+     * For reloading, on a reader, state that after-commit actions keep up to
+     * date in memory: take a stamp before the read, then publish the result
+     * only if {@link #noCommitSince(long)} still holds. Otherwise the read may
+     * include a commit whose actions have not run yet, and they would apply
+     * its changes a second time.
+     *
+     * @return the stamp, or -1 while a commit's actions are still pending.
+     */
+    long commitStamp() {
+        long settled = actionCommitsSettled; // first: a commit starting in between is caught below
+        long started = actionCommitsStarted;
+        return started == settled ? started : -1;
+    }
+
+    /** True if no commit with after-commit actions has begun since {@code stamp} was taken. */
+    boolean noCommitSince(long stamp) {
+        return stamp >= 0 && actionCommitsStarted == stamp;
+    }
+
+    private void runAfterCommit() {
+        for (Runnable action : afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // the data is committed; a failing follow-up must not report otherwise
+                LOG.log(Level.WARNING, "After-commit action failed", e);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} inside the current transaction under a savepoint, so a
+     * failure undoes only {@code work}'s changes and leaves the enclosing unit
+     * intact. Outside a transaction this is the same as {@link #inTransaction}.
+     */
+    public <T> T inSavepoint(TransactionCallback<T> work) throws SQLException {
+        try (ConnectionPool.Lease c = pool.writer()) {
+            Connection conn = c.connection();
+            if (conn.getAutoCommit()) {
+                return inTransaction(work);
+            }
+            Savepoint savepoint = conn.setSavepoint();
+            int registered = afterCommit.size();
+            try {
+                T result = work.execute();
+                conn.releaseSavepoint(savepoint);
+                return result;
+            } catch (Throwable e) {
+                conn.rollback(savepoint);
+                conn.releaseSavepoint(savepoint);
+                afterCommit.subList(registered, afterCommit.size()).clear();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Calls {@code listener} with the event id after every committed
+     * {@link #saveCategory} or {@link #updateCategory}, so in-memory copies of
+     * categories can be dropped or reloaded. Writes from other processes are
+     * not reported.
+     */
+    void onCategoriesChanged(IntConsumer listener) {
+        categoryListeners.add(listener);
+    }
+
+    private void categoriesChanged(int eventId) throws SQLException {
+        afterCommit(() -> {
+            for (IntConsumer listener : categoryListeners) {
+                listener.accept(eventId);
+            }
+        });
     }
 
     // -- Event CRUD --------------------------------------------------------
 
     public Event saveEvent(Event event) throws SQLException {
         String sql = "INSERT INTO events(uuid, name, date_time, location) VALUES(?,?,?,?)";
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (ConnectionPool.Lease c = pool.writer(); PreparedStatement p = c.connection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             p.setString(1, event.getUuid().toString());
             p.setString(2, event.getName());
-            p.setString(3, event.getDateTime().toString());
+            p.setLong(3, TimestampCodec.toMicros(event.getDateTime()));
             p.setString(4, event.getLocation());
             p.executeUpdate();
 
@@ -104,97 +240,248 @@ public class PersistenceService {
                 if (generatedKeys.next()) {
                     int eventId = generatedKeys.getInt(1);
 
-                    for (TicketCategory cat : event.getCategories()) {
-                        saveCategory(eventId, cat.getName(), cat.getPrice(), cat.getAvailable());
-                    }
-
-                    return Event.builder()
+                    var saved = Event.builder()
                             .eventId(eventId)
                             .uuid(event.getUuid())
                             .name(event.getName())
                             .dateTime(event.getDateTime())
-                            .location(event.getLocation())
-                            .build();
+                            .location(event.getLocation());
+                    for (TicketCategory cat : event.getCategories()) {
+                        int categoryId = saveCategory(eventId, cat.getName(), cat.getPrice(), cat.getAvailable());
+                        saved.addCategory(categoryId, cat.getName(), cat.getPrice(), cat.getAvailable());
+                    }
+                    return saved.build();
                 }
             }
         }
         throw new SQLException("Failed to insert event.");
     }
 
+    /**
+     * Events joined with their categories in a single query. Rows arrive
+     * ordered by event, so {@link #readEvents(ResultSet)} can group them as
+     * they stream in.
+     */
+    private static final String EVENT_WITH_CATEGORIES_SQL = """
+            SELECT e.event_id, e.uuid, e.name, e.date_time, e.location,
+                   c.category_id, c.category_name, c.price, c.available
+            FROM events e
+            LEFT JOIN ticket_categories c ON c.event_id = e.event_id
+            """;
+
     public List<Event> loadEvents() throws SQLException {
-        String sql = "SELECT event_id, uuid, name, date_time, location FROM events";
-        List<Event> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             Statement st = c.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
+        String sql = EVENT_WITH_CATEGORIES_SQL + "ORDER BY e.event_id, c.category_name";
+        try (ConnectionPool.Lease c = pool.reader();
+             ResultSet rs = c.prepare(sql).executeQuery()) {
+            return readEvents(rs);
+        }
+    }
 
-            while (rs.next()) {
-                int eventId = rs.getInt("event_id");
-                UUID uuid = UUID.fromString(rs.getString("uuid"));
-                String name = rs.getString("name");
-                LocalDateTime dateTime = LocalDateTime.parse(rs.getString("date_time"));
-                String location = rs.getString("location");
+    public Event loadEventById(int eventId) throws SQLException {
+        String sql = EVENT_WITH_CATEGORIES_SQL + "WHERE e.event_id = ? ORDER BY c.category_name";
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setInt(1, eventId);
+            try (ResultSet rs = p.executeQuery()) {
+                List<Event> events = readEvents(rs);
+                return events.isEmpty() ? null : events.get(0);
+            }
+        }
+    }
 
-                var builder = Event.builder()
-                        .eventId(eventId)
-                        .uuid(uuid)
-                        .name(name)
-                        .dateTime(dateTime)
-                        .location(location);
+    /**
+     * Events with the given ids, keyed by id; unknown ids are absent. Looked
+     * up {@value #ID_CHUNK_SIZE} per query, like
+     * {@link #loadReservationsByIds(Collection)}.
+     */
+    public Map<Integer, Event> loadEventsByIds(int[] ids) throws SQLException {
+        String sql = EVENT_WITH_CATEGORIES_SQL + "WHERE e.event_id IN (%s) ORDER BY e.event_id, c.category_name"
+                .formatted(String.join(",", Collections.nCopies(ID_CHUNK_SIZE, "?")));
+        Map<Integer, Event> found = new HashMap<>();
+        if (ids.length == 0) {
+            return found;
+        }
+        // In id order, each chunk reads neighbouring pages of the table
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            for (int from = 0; from < sorted.length; from += ID_CHUNK_SIZE) {
+                int to = Math.min(from + ID_CHUNK_SIZE, sorted.length);
+                for (int i = 0; i < ID_CHUNK_SIZE; i++) {
+                    p.setInt(i + 1, sorted[Math.min(from + i, to - 1)]);
+                }
+                try (ResultSet rs = p.executeQuery()) {
+                    for (Event e : readEvents(rs)) {
+                        found.put(e.getEventId(), e);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /** Receives one (event_id, date_time) pair per event, without boxing. */
+    @FunctionalInterface
+    interface EventTimeVisitor {
+        void visit(int eventId, long dateTime);
+    }
 
-                for (TicketCategory cat : loadCategories(eventId)) {
-                    builder.addCategory(cat.getName(), cat.getPrice(), cat.getAvailable());
+    /**
+     * Passes the id and epoch {@code date_time} of every event with an id
+     * above {@code afterId} to {@code visitor}, ordered by date_time, then
+     * id. The new ids are found through the primary key before sorting, so
+     * a call that finds nothing costs a single index probe.
+     */
+    void loadEventTimes(int afterId, EventTimeVisitor visitor) throws SQLException {
+        String sql = """
+                WITH fresh AS MATERIALIZED (
+                  SELECT event_id, date_time FROM events WHERE event_id > ?
+                )
+                SELECT event_id, date_time FROM fresh ORDER BY date_time, event_id
+                """;
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setInt(1, afterId);
+            try (ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    visitor.visit(rs.getInt(1), rs.getLong(2));
                 }
-                list.add(builder.build());
             }
         }
-        return list;
     }
 
-    public Event loadEventById(int eventId) throws SQLException {
-        String sql = "SELECT uuid, name, date_time, location FROM events WHERE event_id=?";
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(sql)) {
+    /** Receives the searchable text of one event. */
+    @FunctionalInterface
+    interface EventTextVisitor {
+        void visit(int eventId, long dateTime, String name, String location);
+    }
 
-            p.setInt(1, eventId);
+    /**
+     * Passes the id, epoch {@code date_time}, name and location of every
+     * event with an id above {@code afterId} to {@code visitor}, by id.
+     */
+    void loadEventTexts(int afterId, EventTextVisitor visitor) throws SQLException {
+        String sql = "SELECT event_id, date_time, name, location FROM events WHERE event_id > ? ORDER BY event_id";
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setInt(1, afterId);
             try (ResultSet rs = p.executeQuery()) {
-                if (!rs.next())
-                    return null;
+                while (rs.next()) {
+                    visitor.visit(rs.getInt(1), rs.getLong(2), rs.getString(3), rs.getString(4));
+                }
+            }
+        }
+    }
 
-                UUID uuid = UUID.fromString(rs.getString("uuid"));
-                String name = rs.getString("name");
-                LocalDateTime dateTime = LocalDateTime.parse(rs.getString("date_time"));
-                String location = rs.getString("location");
+    /**
+     * Events matching {@code query}, filtered in SQL. Date bounds are compared
+     * against the indexed epoch {@code date_time} column, so only matching
+     * rows are read: [from 00:00, to+1 00:00).
+     */
+    public List<Event> findEvents(EventQuery query) throws SQLException {
+        StringBuilder sql = new StringBuilder(EVENT_WITH_CATEGORIES_SQL).append("WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        if (query.getFrom() != null) {
+            sql.append(" AND e.date_time >= ?");
+            params.add(TimestampCodec.startOfDay(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND e.date_time < ?");
+            params.add(TimestampCodec.startOfDay(query.getTo().plusDays(1)));
+        }
+        if (query.getName() != null) {
+            sql.append(" AND e.name LIKE ? ESCAPE '\\'");
+            params.add(containsPattern(query.getName()));
+        }
+        if (query.getLocation() != null) {
+            sql.append(" AND e.location LIKE ? ESCAPE '\\'");
+            params.add(containsPattern(query.getLocation()));
+        }
+        sql.append(" ORDER BY e.date_time, e.event_id, c.category_name");
 
-                var builder = Event.builder()
-                        .eventId(eventId)
-                        .uuid(uuid)
-                        .name(name)
-                        .dateTime(dateTime)
-                        .location(location);
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql.toString());
+            for (int i = 0; i < params.size(); i++) {
+                p.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = p.executeQuery()) {
+                return readEvents(rs);
+            }
+        }
+    }
+
+    /** LIKE pattern matching {@code text} anywhere, with wildcards in it escaped. */
+    private static String containsPattern(String text) {
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
 
-                for (TicketCategory cat : loadCategories(eventId)) {
-                    builder.addCategory(cat.getName(), cat.getPrice(), cat.getAvailable());
+    /** Folds consecutive rows of the same event_id into one Event. */
+    private static List<Event> readEvents(ResultSet rs) throws SQLException {
+        List<Event> list = new ArrayList<>();
+        Event.Builder builder = null;
+        int currentId = 0;
+
+        while (rs.next()) {
+            int eventId = rs.getInt("event_id");
+            if (builder == null || eventId != currentId) {
+                if (builder != null) {
+                    list.add(builder.build());
                 }
-                return builder.build();
+                currentId = eventId;
+                builder = Event.builder()
+                        .eventId(eventId)
+                        .uuid(UUID.fromString(rs.getString("uuid")))
+                        .name(rs.getString("name"))
+                        .dateTime(TimestampCodec.fromMicros(rs.getLong("date_time")))
+                        .location(rs.getString("location"));
             }
+
+            String categoryName = rs.getString("category_name");
+            if (categoryName != null) { // LEFT JOIN: events without categories
+                builder.addCategory(rs.getInt("category_id"), categoryName,
+                        rs.getDouble("price"), rs.getInt("available"));
+            }
+        }
+        if (builder != null) {
+            list.add(builder.build());
         }
+        return list;
     }
 
     // -- TicketCategory CRUD ----------------------------------------------
 
-    public void saveCategory(int eventId, String categoryName, double price, int available) throws SQLException {
+    /**
+     * Inserts a category, or updates price and stock of an existing one in
+     * place so its id (and the reservations pointing at it) stay valid.
+     *
+     * @return the category's id
+     */
+    public int saveCategory(int eventId, String categoryName, double price, int available) throws SQLException {
         String sql = """
-                INSERT OR REPLACE INTO ticket_categories
+                INSERT INTO ticket_categories
                 (event_id, category_name, price, available)
                 VALUES(?,?,?,?)
+                ON CONFLICT(event_id, category_name)
+                DO UPDATE SET price = excluded.price, available = excluded.available
+                RETURNING category_id
                 """;
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(sql);
             p.setInt(1, eventId);
             p.setString(2, categoryName);
             p.setDouble(3, price);
             p.setInt(4, available);
-            p.executeUpdate();
+            int categoryId;
+            try (ResultSet rs = p.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Failed to save category.");
+                }
+                categoryId = rs.getInt(1);
+            }
+            categoriesChanged(eventId);
+            return categoryId;
         }
     }
 
@@ -204,26 +491,47 @@ public class PersistenceService {
                 SET available = ?
                 WHERE event_id = ? AND category_name = ?
                 """;
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(sql);
             p.setInt(1, available);
             p.setInt(2, eventId);
             p.setString(3, categoryName);
-            p.executeUpdate();
+            if (p.executeUpdate() > 0) {
+                categoriesChanged(eventId);
+            }
+        }
+    }
+
+    /**
+     * Adds {@code quantity} tickets back to a category relative to its current
+     * value, so concurrent restores and reservations never overwrite each other.
+     *
+     * @return false if the category does not exist
+     */
+    public boolean restoreTickets(int categoryId, int quantity) throws SQLException {
+        String sql = "UPDATE ticket_categories SET available = available + ? WHERE category_id = ?";
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setInt(1, quantity);
+            p.setInt(2, categoryId);
+            return p.executeUpdate() > 0;
         }
     }
 
     public List<TicketCategory> loadCategories(int eventId) throws SQLException {
         String sql = """
-                SELECT category_name, price, available
+                SELECT category_id, category_name, price, available
                 FROM ticket_categories
                 WHERE event_id = ?
                 """;
         List<TicketCategory> cats = new ArrayList<>();
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
             p.setInt(1, eventId);
             try (ResultSet rs = p.executeQuery()) {
                 while (rs.next()) {
                     cats.add(new TicketCategory(
+                            rs.getInt("category_id"),
                             rs.getString("category_name"),
                             rs.getDouble("price"),
                             rs.getInt("available")));
@@ -233,88 +541,268 @@ public class PersistenceService {
         return cats;
     }
 
+    /**
+     * Live ticket counts of an event's categories, keyed by category name.
+     * Much cheaper than reloading the event, so cached metadata can be paired
+     * with current inventory.
+     */
+    public Map<String, Integer> loadAvailability(int eventId) throws SQLException {
+        String sql = """
+                SELECT category_name, available
+                FROM ticket_categories
+                WHERE event_id = ?
+                """;
+        Map<String, Integer> available = new HashMap<>();
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setInt(1, eventId);
+            try (ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    available.put(rs.getString("category_name"), rs.getInt("available"));
+                }
+            }
+        }
+        return available;
+    }
+
+    /** Live ticket counts of every category, by event id and category name. */
+    public Map<Integer, Map<String, Integer>> loadInventory() throws SQLException {
+        String sql = "SELECT event_id, category_name, available FROM ticket_categories";
+        Map<Integer, Map<String, Integer>> inventory = new HashMap<>();
+        try (ConnectionPool.Lease c = pool.reader();
+             ResultSet rs = c.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                inventory.computeIfAbsent(rs.getInt("event_id"), id -> new HashMap<>())
+                        .put(rs.getString("category_name"), rs.getInt("available"));
+            }
+        }
+        return inventory;
+    }
+
     // -- Reservation CRUD -------------------------------------------------
 
-    public void saveReservation(String id,
+    public void saveReservation(UUID id,
                                int eventId,
                                String categoryName,
                                int quantity,
-                               String reservedAt) throws SQLException {
+                               LocalDateTime reservedAt) throws SQLException {
         String sql = """
                 INSERT OR REPLACE INTO reservations
-                (id, event_id, category_name, quantity, reserved_at)
+                (id, event_id, category_id, quantity, reserved_at)
+                VALUES(?, ?,
+                       (SELECT category_id FROM ticket_categories WHERE event_id = ? AND category_name = ?),
+                       ?, ?)
+                """;
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setBytes(1, UuidCodec.toBytes(id));
+            p.setInt(2, eventId);
+            p.setInt(3, eventId);
+            p.setString(4, categoryName);
+            p.setInt(5, quantity);
+            p.setLong(6, TimestampCodec.toMicros(reservedAt));
+            p.executeUpdate();
+        }
+    }
+
+    /** Same as {@link #saveReservation(UUID, int, String, int, LocalDateTime)}, by category id. */
+    public void saveReservation(UUID id,
+                                int eventId,
+                                int categoryId,
+                                int quantity,
+                                LocalDateTime reservedAt) throws SQLException {
+        String sql = """
+                INSERT OR REPLACE INTO reservations
+                (id, event_id, category_id, quantity, reserved_at)
                 VALUES(?,?,?,?,?)
                 """;
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
-            p.setString(1, id);
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setBytes(1, UuidCodec.toBytes(id));
             p.setInt(2, eventId);
-            p.setString(3, categoryName);
+            p.setInt(3, categoryId);
             p.setInt(4, quantity);
-            p.setString(5, reservedAt);
+            p.setLong(5, TimestampCodec.toMicros(reservedAt));
             p.executeUpdate();
         }
     }
 
-    public Reservation loadReservationById(String id) throws SQLException {
-        String sql = """
-                SELECT event_id, category_name, quantity, reserved_at
-                FROM reservations
-                WHERE id = ?
+    /**
+     * Outcome of {@link #reserveTickets}: {@link #SOLD_OUT},
+     * {@link #UNKNOWN_CATEGORY}, or reserved from the category with
+     * {@link #getCategoryId()}.
+     */
+    public static final class ReserveOutcome {
+        public static final ReserveOutcome SOLD_OUT = new ReserveOutcome(0);
+        public static final ReserveOutcome UNKNOWN_CATEGORY = new ReserveOutcome(0);
+
+        private final int categoryId;
+
+        private ReserveOutcome(int categoryId) {
+            this.categoryId = categoryId;
+        }
+
+        public boolean isReserved() {
+            return categoryId != 0;
+        }
+
+        /** Id of the category the tickets were taken from; 0 if none were. */
+        public int getCategoryId() {
+            return categoryId;
+        }
+    }
+
+    /**
+     * Atomically takes {@code quantity} tickets from a category and records
+     * the reservation. Runs in its own transaction, or joins the caller's
+     * {@link #inTransaction unit of work}.
+     *
+     * The decrement is guarded by {@code available >= ?}, so the database
+     * itself rejects an oversell; concurrent callers in this or any other
+     * process can never both consume the last tickets. Nothing is written
+     * unless the decrement succeeds.
+     */
+    public ReserveOutcome reserveTickets(UUID reservationId,
+                                         int eventId,
+                                         String categoryName,
+                                         int quantity,
+                                         LocalDateTime reservedAt) throws SQLException {
+        String decrementSql = """
+                UPDATE ticket_categories
+                SET available = available - ?
+                WHERE event_id = ? AND category_name = ? AND available >= ?
+                RETURNING category_id
                 """;
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
-            p.setString(1, id);
+        return inTransaction(() -> {
+            try (ConnectionPool.Lease c = pool.writer()) {
+                PreparedStatement p = c.prepare(decrementSql);
+                p.setInt(1, quantity);
+                p.setInt(2, eventId);
+                p.setString(3, categoryName);
+                p.setInt(4, quantity);
+
+                int categoryId;
+                try (ResultSet rs = p.executeQuery()) {
+                    if (!rs.next()) {
+                        return categoryExists(c, eventId, categoryName)
+                                ? ReserveOutcome.SOLD_OUT
+                                : ReserveOutcome.UNKNOWN_CATEGORY;
+                    }
+                    categoryId = rs.getInt(1);
+                }
+
+                saveReservation(reservationId, eventId, categoryId, quantity, reservedAt);
+                return new ReserveOutcome(categoryId);
+            }
+        });
+    }
+
+    private static boolean categoryExists(ConnectionPool.Lease c, int eventId, String categoryName)
+            throws SQLException {
+        String sql = "SELECT 1 FROM ticket_categories WHERE event_id = ? AND category_name = ?";
+        PreparedStatement p = c.prepare(sql);
+        p.setInt(1, eventId);
+        p.setString(2, categoryName);
+        try (ResultSet rs = p.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    /** Reservation rows with their category name resolved through the category id. */
+    private static final String RESERVATION_SQL = """
+            SELECT r.id, r.event_id, r.category_id, c.category_name, r.quantity, r.reserved_at
+            FROM reservations r
+            JOIN ticket_categories c ON c.category_id = r.category_id
+            """;
+
+    private static Reservation readReservation(ResultSet rs) throws SQLException {
+        return Reservation.restore(
+                UuidCodec.fromBytes(rs.getBytes("id")),
+                rs.getInt("event_id"),
+                rs.getInt("category_id"),
+                rs.getString("category_name"),
+                rs.getInt("quantity"),
+                TimestampCodec.fromMicros(rs.getLong("reserved_at")));
+    }
+
+    public Reservation loadReservationById(UUID id) throws SQLException {
+        String sql = RESERVATION_SQL + "WHERE r.id = ?";
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setBytes(1, UuidCodec.toBytes(id));
             try (ResultSet rs = p.executeQuery()) {
-                if (!rs.next())
-                    return null;
-                Reservation r = new Reservation(
-                        rs.getInt("event_id"),
-                        rs.getString("category_name"),
-                        rs.getInt("quantity"));
-                return Reservation.withId(id,
-                        LocalDateTime.parse(rs.getString("reserved_at")), r);
+                return rs.next() ? readReservation(rs) : null;
             }
         }
     }
 
-    public List<Reservation> loadReservationsByUser(String userId) throws SQLException {
-        String sql = """
-                SELECT r.id, r.event_id, r.category_name, r.quantity, r.reserved_at
-                FROM reservations r
+    /** Ids per IN (...) query; well below SQLite's bound-parameter limit. */
+    private static final int ID_CHUNK_SIZE = 500;
+
+    /**
+     * Reservations with the given ids, keyed by id; unknown ids are absent.
+     * Ids are looked up {@value #ID_CHUNK_SIZE} per query, and a short last
+     * chunk is padded with repeats so every query shares one cached statement.
+     */
+    public Map<UUID, Reservation> loadReservationsByIds(Collection<UUID> ids) throws SQLException {
+        String sql = RESERVATION_SQL + "WHERE r.id IN (%s)"
+                .formatted(String.join(",", Collections.nCopies(ID_CHUNK_SIZE, "?")));
+        List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<UUID, Reservation> found = new HashMap<>();
+        if (distinct.isEmpty()) {
+            return found;
+        }
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            for (int from = 0; from < distinct.size(); from += ID_CHUNK_SIZE) {
+                List<UUID> chunk = distinct.subList(from, Math.min(from + ID_CHUNK_SIZE, distinct.size()));
+                for (int i = 0; i < ID_CHUNK_SIZE; i++) {
+                    p.setBytes(i + 1, UuidCodec.toBytes(chunk.get(Math.min(i, chunk.size() - 1))));
+                }
+                try (ResultSet rs = p.executeQuery()) {
+                    while (rs.next()) {
+                        Reservation r = readReservation(rs);
+                        found.put(r.getId(), r);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    public List<Reservation> loadReservationsByUser(UUID userId) throws SQLException {
+        String sql = RESERVATION_SQL + """
                 JOIN user_reservations ur ON r.id = ur.reservation_id
                 WHERE ur.user_id = ?
                 """;
         List<Reservation> list = new ArrayList<>();
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
-            p.setString(1, userId);
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setBytes(1, UuidCodec.toBytes(userId));
             try (ResultSet rs = p.executeQuery()) {
                 while (rs.next()) {
-                    Reservation r = new Reservation(
-                            rs.getInt("event_id"),
-                            rs.getString("category_name"),
-                            rs.getInt("quantity"));
-                    r = Reservation.withId(
-                            rs.getString("id"),
-                            LocalDateTime.parse(rs.getString("reserved_at")),
-                            r);
-                    list.add(r);
+                    list.add(readReservation(rs));
                 }
             }
         }
         return list;
     }
 
-    public void deleteReservation(String reservationId) throws SQLException {
+    public void deleteReservation(UUID reservationId) throws SQLException {
+        byte[] id = UuidCodec.toBytes(reservationId);
         // Must delete from the linking table first due to foreign key constraints
         String deleteLinkSql = "DELETE FROM user_reservations WHERE reservation_id = ?";
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(deleteLinkSql)) {
-            p.setString(1, reservationId);
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(deleteLinkSql);
+            p.setBytes(1, id);
             p.executeUpdate();
         }
 
         // Then delete the reservation itself
         String deleteReservationSql = "DELETE FROM reservations WHERE id = ?";
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(deleteReservationSql)) {
-            p.setString(1, reservationId);
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(deleteReservationSql);
+            p.setBytes(1, id);
             p.executeUpdate();
         }
     }
@@ -323,8 +811,9 @@ public class PersistenceService {
 
     public void saveUser(User user) throws SQLException {
         String sql = "INSERT INTO users(id, username) VALUES(?,?)";
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
-            p.setString(1, user.getId().toString());
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setBytes(1, UuidCodec.toBytes(user.getId()));
             p.setString(2, user.getUsername());
             p.executeUpdate();
         }
@@ -332,26 +821,28 @@ public class PersistenceService {
 
     public User findUserByUsername(String username) throws SQLException {
         String sql = "SELECT id FROM users WHERE username = ?";
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
             p.setString(1, username);
             try (ResultSet rs = p.executeQuery()) {
                 if (!rs.next()) {
                     return null; // No user found
                 }
-                UUID userId = UUID.fromString(rs.getString("id"));
+                UUID userId = UuidCodec.fromBytes(rs.getBytes("id"));
                 return new User(userId, username);
             }
         }
     }
 
-    public List<UUID> loadReservationIdsForUser(String userId) throws SQLException {
+    public List<UUID> loadReservationIdsForUser(UUID userId) throws SQLException {
         String sql = "SELECT reservation_id FROM user_reservations WHERE user_id = ?";
         List<UUID> ids = new ArrayList<>();
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
-            p.setString(1, userId);
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setBytes(1, UuidCodec.toBytes(userId));
             try (ResultSet rs = p.executeQuery()) {
                 while (rs.next()) {
-                    ids.add(UUID.fromString(rs.getString("reservation_id")));
+                    ids.add(UuidCodec.fromBytes(rs.getBytes("reservation_id")));
                 }
             }
         }
@@ -360,22 +851,51 @@ public class PersistenceService {
 
     // -- User ↔ Reservation link ------------------------------------------
 
-    public void saveUserReservations(String userId, List<UUID> reservationIds)
+    /** Id of the user a reservation is linked to, or null if it has none. */
+    public UUID findReservationOwner(UUID reservationId) throws SQLException {
+        String sql = "SELECT user_id FROM user_reservations WHERE reservation_id = ?";
+        try (ConnectionPool.Lease c = pool.reader()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setBytes(1, UuidCodec.toBytes(reservationId));
+            try (ResultSet rs = p.executeQuery()) {
+                return rs.next() ? UuidCodec.fromBytes(rs.getBytes("user_id")) : null;
+            }
+        }
+    }
+
+    /** Appends a single user → reservation link; cost is independent of history size. */
+    public void linkUserReservation(UUID userId, UUID reservationId) throws SQLException {
+        String sql = "INSERT OR IGNORE INTO user_reservations(user_id, reservation_id) VALUES(?,?)";
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(sql);
+            p.setBytes(1, UuidCodec.toBytes(userId));
+            p.setBytes(2, UuidCodec.toBytes(reservationId));
+            p.executeUpdate();
+        }
+    }
+
+    /**
+     * Replaces every link of a user with {@code reservationIds}. Rewrites the
+     * user's whole history; the reservation paths use
+     * {@link #linkUserReservation} and {@link #deleteReservation} instead.
+     */
+    public void saveUserReservations(UUID userId, List<UUID> reservationIds)
             throws SQLException {
+        byte[] user = UuidCodec.toBytes(userId);
         // delete old links
-        try (Connection c = getConnection();
-             PreparedStatement del = c.prepareStatement(
-                     "DELETE FROM user_reservations WHERE user_id = ?")) {
-            del.setString(1, userId);
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement del = c.prepare("DELETE FROM user_reservations WHERE user_id = ?");
+            del.setBytes(1, user);
             del.executeUpdate();
         }
 
         // insert current
         String sql = "INSERT INTO user_reservations(user_id, reservation_id) VALUES(?,?)";
-        try (Connection c = getConnection(); PreparedStatement p = c.prepareStatement(sql)) {
+        try (ConnectionPool.Lease c = pool.writer()) {
+            PreparedStatement p = c.prepare(sql);
             for (UUID rid : reservationIds) {
-                p.setString(1, userId);
-                p.setString(2, rid.toString());
+                p.setBytes(1, user);
+                p.setBytes(2, UuidCodec.toBytes(rid));
                 p.addBatch();
             }
             p.executeBatch();
@@ -0,0 +1,108 @@
+package com.myorg.ticket.service;
+
+/** Point-in-time view of the connection pool's utilization and wait times. */
+public final class PoolStats {
+    private final int maxReaders;
+    private final int openReaders;
+    private final int busyReaders;
+    private final boolean writerBusy;
+    private final int writerQueueLength;
+    private final long acquisitions;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long timeouts;
+    private final long commits;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    PoolStats(int maxReaders, int openReaders, int busyReaders, boolean writerBusy,
+              int writerQueueLength, long acquisitions, long totalWaitNanos,
+              long maxWaitNanos, long timeouts, long commits,
+              long statementCacheHits, long statementCacheMisses) {
+        this.maxReaders = maxReaders;
+        this.openReaders = openReaders;
+        this.busyReaders = busyReaders;
+        this.writerBusy = writerBusy;
+        this.writerQueueLength = writerQueueLength;
+        this.acquisitions = acquisitions;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.timeouts = timeouts;
+        this.commits = commits;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    public int getMaxReaders() {
+        return maxReaders;
+    }
+
+    public int getOpenReaders() {
+        return openReaders;
+    }
+
+    public int getBusyReaders() {
+        return busyReaders;
+    }
+
+    public boolean isWriterBusy() {
+        return writerBusy;
+    }
+
+    /** Threads currently blocked waiting for the writer connection. */
+    public int getWriterQueueLength() {
+        return writerQueueLength;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /** Transactions committed on the writer connection; each one is a durable sync. */
+    public long getCommits() {
+        return commits;
+    }
+
+    /** Statements served from a connection's prepared-statement cache. */
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /** Statements that had to be compiled (first use on a connection, or evicted). */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    /** Fraction of reader connections currently lent out (0.0 – 1.0). */
+    public double getReaderUtilization() {
+        return (double) busyReaders / maxReaders;
+    }
+
+    public double getAverageWaitMicros() {
+        return acquisitions == 0 ? 0.0 : totalWaitNanos / 1_000.0 / acquisitions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "readers %d/%d busy (%d open), writer %s (%d waiting), %d acquisitions, "
+                        + "avg wait %.1f us, max wait %.1f us, %d timeouts, %d commits, "
+                        + "statement cache %d hits / %d misses",
+                busyReaders, maxReaders, openReaders, writerBusy ? "busy" : "idle",
+                writerQueueLength, acquisitions, getAverageWaitMicros(),
+                maxWaitNanos / 1_000.0, timeouts, commits,
+                statementCacheHits, statementCacheMisses);
+    }
+}
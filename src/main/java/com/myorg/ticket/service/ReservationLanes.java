@@ -0,0 +1,134 @@
+package com.myorg.ticket.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of single-threaded lanes; every event id hashes to one lane.
+ *
+ * All work for an event runs in submission order on its lane's thread, so
+ * requests for the same event never race each other in this process, while
+ * events on different lanes proceed in parallel. Callers block until their
+ * task has run, so results and exceptions surface exactly as if the task had
+ * run on the calling thread.
+ */
+class ReservationLanes implements AutoCloseable {
+    private final Lane[] lanes;
+    private final ThreadLocal<Lane> current = new ThreadLocal<>();
+
+    ReservationLanes(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Need at least one lane");
+        }
+        lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new Lane(i);
+        }
+    }
+
+    /** Runs {@code task} on the lane of {@code eventId} and returns its result. */
+    <T> T run(int eventId, Supplier<T> task) {
+        Lane lane = lanes[Math.floorMod(Integer.hashCode(eventId), lanes.length)];
+        if (current.get() == lane) {
+            return task.get(); // already on this lane; queueing would deadlock
+        }
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = lane.executor.submit(() -> {
+                long start = System.nanoTime();
+                lane.waitNanos.addAndGet(start - queuedAt);
+                current.set(lane);
+                try {
+                    return task.get();
+                } finally {
+                    current.remove();
+                    lane.record(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ServiceClosedException("Reservation lanes are closed", e);
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for reservation lane", e);
+        }
+    }
+
+    /** Per-lane queue depth and service times, in lane order. */
+    List<LaneStats> stats() {
+        List<LaneStats> stats = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            stats.add(new LaneStats(
+                    lane.index,
+                    lane.executor.getQueue().size(),
+                    lane.completed.get(),
+                    lane.waitNanos.get(),
+                    lane.serviceNanos.get(),
+                    lane.maxServiceNanos.get()));
+        }
+        return stats;
+    }
+
+    /**
+     * Stops accepting work and waits for queued tasks to run; later calls to
+     * {@link #run} fail with an {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+        try {
+            for (Lane lane : lanes) {
+                lane.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Lane {
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong waitNanos = new AtomicLong();
+        private final AtomicLong serviceNanos = new AtomicLong();
+        private final AtomicLong maxServiceNanos = new AtomicLong();
+
+        private Lane(int index) {
+            this.index = index;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread t = new Thread(r, "reservation-lane-" + index);
+                        t.setDaemon(true);
+                        return t;
+                    });
+        }
+
+        private void record(long nanos) {
+            completed.incrementAndGet();
+            serviceNanos.addAndGet(nanos);
+            maxServiceNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.myorg.ticket.service;
+
+/**
+ * One line of a group booking for
+ * {@link ReservationService#makeReservations(java.util.List, com.myorg.ticket.model.User)}:
+ * {@code quantity} tickets in a category of an event.
+ */
+public class ReservationLine {
+    private final int eventId;
+    private final String categoryName;
+    private final int quantity;
+
+    public ReservationLine(int eventId, String categoryName, int quantity) {
+        this.eventId = eventId;
+        this.categoryName = categoryName;
+        this.quantity = quantity;
+    }
+
+    public int getEventId() {
+        return eventId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public String toString() {
+        return quantity + " x " + categoryName + " (event " + eventId + ")";
+    }
+}
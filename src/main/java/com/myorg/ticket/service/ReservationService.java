@@ -1,65 +1,285 @@
 package com.myorg.ticket.service;
 
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import com.myorg.ticket.model.Event;
 import com.myorg.ticket.model.Reservation;
-import com.myorg.ticket.model.TicketCategory;
 import com.myorg.ticket.model.User;
 
-public class ReservationService {
+/**
+ * Reservations and cancellations. A service built with group commit or lanes
+ * owns threads; {@link #close()} it when done.
+ */
+public class ReservationService implements AutoCloseable {
+    private static final int RECENT_RESERVATIONS = Integer.getInteger("ticket.cache.reservations", 4_096);
+
     private final PersistenceService db = PersistenceService.getInstance();
-    private final EventService eventSvc = new EventService();
+    private final InventoryEngine inventory = InventoryEngine.getInstance();
+    private final UserCache users = UserCache.getInstance();
+    private final LruCache<UUID, Reservation> recent = new LruCache<>(RECENT_RESERVATIONS);
+    private final GroupCommitWriter groupCommit;
+    private final ReservationLanes lanes;
+
+    /** Direct mode: every reservation commits its own transaction. */
+    public ReservationService() {
+        this(builder());
+    }
+
+    private ReservationService(Builder b) {
+        this.groupCommit = b.groupCommit
+                ? new GroupCommitWriter(db, b.maxBatchSize, b.maxLinger)
+                : null;
+        this.lanes = b.lanes > 0 ? new ReservationLanes(b.lanes) : null;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private boolean groupCommit = false;
+        private int maxBatchSize;
+        private Duration maxLinger;
+        private int lanes = 0;
+
+        /**
+         * Queue reservations and commit them in batches of up to
+         * {@code maxBatchSize} from a single writer thread, waiting at most
+         * {@code maxLinger} for a batch to fill. Callers still return only
+         * after their reservation is durable.
+         */
+        public Builder groupCommit(int maxBatchSize, Duration maxLinger) {
+            this.groupCommit = true;
+            this.maxBatchSize = maxBatchSize;
+            this.maxLinger = maxLinger;
+            return this;
+        }
+
+        /**
+         * Run all reservations and cancellations for an event, in order, on
+         * one of {@code count} single-threaded lanes chosen by event id.
+         * Requests for the same event never contend with each other; events
+         * on different lanes run in parallel.
+         */
+        public Builder lanes(int count) {
+            if (count < 1) {
+                throw new IllegalArgumentException("Need at least one lane");
+            }
+            this.lanes = count;
+            return this;
+        }
+
+        public ReservationService build() {
+            return new ReservationService(this);
+        }
+    }
 
     /**
      * Reserve tickets in a given category for an event.
      * If user ≠ null, associates reservation with that user.
      */
     public Reservation makeReservation(int eventId, String categoryName, int qty, User user) {
-        try {
-            // 1) Load event & find the right category
-            Event evt = eventSvc.findById(eventId);
-            TicketCategory cat = evt.getCategories().stream()
-                    .filter(c -> c.getName().equals(categoryName))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException("Category not found"));
-
-            // 2) Attempt to reserve
-            if (!cat.reserve(qty)) {
-                throw new IllegalStateException("Not enough tickets available");
+        if (lanes != null) {
+            return lanes.run(eventId, () -> reserve(eventId, categoryName, qty, user));
+        }
+        return reserve(eventId, categoryName, qty, user);
+    }
+
+    private Reservation reserve(int eventId, String categoryName, int qty, User user) {
+        if (qty <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        // Sold-out and unknown categories are rejected from memory, without a round trip
+        admit(eventId, categoryName, qty);
+        return commit(List.of(new Reservation(eventId, categoryName, qty)), user).get(0);
+    }
+
+    /**
+     * Reserve every line of a group booking ("2 VIP + 4 Standard") or none
+     * of them: all lines are written in one transaction, so a sold-out or
+     * unknown category anywhere rolls back the whole order. If user ≠ null,
+     * associates every reservation with that user.
+     *
+     * With lanes enabled, an order for a single event runs on that event's
+     * lane; one spanning several events runs on the calling thread, still
+     * guarded by the database.
+     *
+     * @return one reservation per line, in order.
+     */
+    public List<Reservation> makeReservations(List<ReservationLine> lines, User user) {
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+        int eventId = lines.get(0).getEventId();
+        if (lanes != null && lines.stream().allMatch(l -> l.getEventId() == eventId)) {
+            return lanes.run(eventId, () -> reserveAll(lines, user));
+        }
+        return reserveAll(lines, user);
+    }
+
+    private List<Reservation> reserveAll(List<ReservationLine> lines, User user) {
+        // Lines for the same category are checked against the counters together
+        Map<Integer, Map<String, Integer>> wanted = new LinkedHashMap<>();
+        for (ReservationLine line : lines) {
+            if (line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive");
+            }
+            wanted.computeIfAbsent(line.getEventId(), id -> new LinkedHashMap<>())
+                    .merge(line.getCategoryName(), line.getQuantity(), Integer::sum);
+        }
+        wanted.forEach((eventId, categories) -> categories.forEach((categoryName, qty) ->
+                admit(eventId, categoryName, qty)));
+
+        List<Reservation> batch = new ArrayList<>(lines.size());
+        for (ReservationLine line : lines) {
+            batch.add(new Reservation(line.getEventId(), line.getCategoryName(), line.getQuantity()));
+        }
+        return commit(batch, user);
+    }
+
+    /**
+     * Writes {@code batch} as one unit of work: every reservation commits, or
+     * none does.
+     *
+     * @return the saved reservations, in order, with their category ids.
+     */
+    private List<Reservation> commit(List<Reservation> batch, User user) {
+        PersistenceService.TransactionCallback<List<Reservation>> work = () -> {
+            List<Reservation> saved = new ArrayList<>(batch.size());
+            List<UUID> ids = new ArrayList<>(batch.size());
+            for (Reservation res : batch) {
+                saved.add(persistReservation(res, user));
+                ids.add(res.getId());
             }
-            // 3) Persist updated availability
-            db.updateCategory(eventId, categoryName, cat.getAvailable());
-
-            // 4) Create & save reservation record
-            Reservation res = new Reservation(eventId, categoryName, qty);
-            db.saveReservation(
-                    res.getId().toString(),
-                    eventId,
-                    categoryName,
-                    qty,
-                    res.getReservedAt().toString());
-
-            // 5) Link to user if provided
             if (user != null) {
-                user.addReservation(res.getId());
-                db.saveUserReservations(
-                        user.getId().toString(),
-                        user.getPastReservations());
+                db.afterCommit(() -> users.reservationsAdded(user.getId(), ids));
             }
-
-            return res;
+            return saved;
+        };
+        try {
+            if (groupCommit != null) {
+                return awaitDurable(groupCommit.submit(work));
+            }
+            return db.inTransaction(work);
         } catch (SQLException e) {
+            forget(user, batch);
             throw new RuntimeException("Error making reservation", e);
+        } catch (IllegalStateException e) {
+            forget(user, batch);
+            batch.forEach(this::resyncIfStale);
+            throw e;
+        } catch (RuntimeException e) {
+            forget(user, batch);
+            throw e;
+        }
+    }
+
+    /**
+     * The database turned down a reservation the counters admitted, so another
+     * process changed the stock; reload the event's counters.
+     */
+    private void resyncIfStale(Reservation res) {
+        if (inventory.available(res.getEventId(), res.getCategoryName()) < res.getQuantity()) {
+            return;
+        }
+        try {
+            inventory.refresh(res.getEventId());
+        } catch (SQLException ignored) {
+            // counters past the staleness window are reloaded before they reject anything
+        }
+    }
+
+    /** Throws as the database would if the counters rule the request out. */
+    private void admit(int eventId, String categoryName, int qty) {
+        InventoryEngine.Admission admission;
+        try {
+            admission = inventory.admit(eventId, categoryName, qty);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading inventory", e);
+        }
+        switch (admission) {
+            case UNKNOWN:
+                throw new IllegalArgumentException("Category not found");
+            case SOLD_OUT:
+                throw new IllegalStateException("Not enough tickets available");
+            default:
+                break;
+        }
+    }
+
+    /**
+     * The writes of one reservation; runs inside the caller's unit of work,
+     * which updates the user cache once the whole batch has committed.
+     *
+     * @return {@code res} with the id of the category it was taken from.
+     */
+    private Reservation persistReservation(Reservation res, User user) throws SQLException {
+        // 1) Guarded decrement + reservation insert
+        PersistenceService.ReserveOutcome outcome = db.reserveTickets(
+                res.getId(),
+                res.getEventId(),
+                res.getCategoryName(),
+                res.getQuantity(),
+                res.getReservedAt());
+
+        if (outcome == PersistenceService.ReserveOutcome.UNKNOWN_CATEGORY) {
+            throw new IllegalArgumentException("Category not found");
+        }
+        if (outcome == PersistenceService.ReserveOutcome.SOLD_OUT) {
+            throw new IllegalStateException("Not enough tickets available");
+        }
+        Reservation saved = Reservation.restore(res.getId(), res.getEventId(), outcome.getCategoryId(),
+                res.getCategoryName(), res.getQuantity(), res.getReservedAt());
+        db.afterCommit(() -> {
+            inventory.reserved(saved.getEventId(), saved.getCategoryName(), saved.getQuantity());
+            recent.put(saved.getId(), saved);
+        });
+
+        // 2) Link to user if provided, in the same commit
+        if (user != null) {
+            db.linkUserReservation(user.getId(), saved.getId());
+            user.addReservation(saved.getId());
+        }
+        return saved;
+    }
+
+    /** Undo the in-memory links when the unit of work did not commit. */
+    private static void forget(User user, List<Reservation> batch) {
+        if (user != null) {
+            for (Reservation res : batch) {
+                user.removeReservation(res.getId());
+            }
+        }
+    }
+
+    private static <T> T awaitDurable(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
         }
     }
 
     /** List all reservations for a given user */
     public List<Reservation> listByUser(User user) {
         try {
-            return db.loadReservationsByUser(user.getId().toString());
+            return db.loadReservationsByUser(user.getId());
         } catch (SQLException e) {
             throw new RuntimeException("Error loading reservations", e);
         }
@@ -68,12 +288,50 @@ public class ReservationService {
     /** Lookup single reservation by ID */
     public Reservation findById(UUID reservationId) {
         try {
-            return db.loadReservationById(reservationId.toString());
+            return recent.get(reservationId, db::loadReservationById);
         } catch (SQLException e) {
             throw new RuntimeException("Error loading reservation", e);
         }
     }
 
+    /**
+     * Lookup many reservations at once. Recently seen reservations come from
+     * the cache; the rest are fetched together in chunked queries.
+     *
+     * @return the reservations found, keyed by ID in the order requested;
+     *         unknown IDs are absent.
+     */
+    public Map<UUID, Reservation> findByIds(Collection<UUID> reservationIds) {
+        Map<UUID, Reservation> found = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : reservationIds) {
+            Reservation r = recent.get(id);
+            found.put(id, r);
+            if (r == null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            try {
+                long stamp = recent.stamp();
+                Map<UUID, Reservation> loaded = db.loadReservationsByIds(missing);
+                for (Reservation r : loaded.values()) {
+                    found.put(r.getId(), r);
+                    recent.putIfUnchanged(r.getId(), r, stamp);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error loading reservations", e);
+            }
+        }
+        found.values().removeIf(Objects::isNull);
+        return found;
+    }
+
+    /** Hit ratio and evictions of the recent-reservation cache */
+    public CacheStats getReservationCacheStats() {
+        return recent.stats();
+    }
+
     /**
      * Cancels a reservation, restoring ticket counts.
      *
@@ -81,34 +339,82 @@ public class ReservationService {
      * @return true if cancellation was successful.
      */
     public boolean cancelReservation(UUID reservationId) {
-        try {
-            // 1. Find the reservation
-            Reservation res = db.loadReservationById(reservationId.toString());
+        return cancelReservation(reservationId, null);
+    }
+
+    /**
+     * Cancels a reservation, restoring ticket counts, and drops it from the
+     * in-memory history of {@code user} (if not null) once it is committed.
+     *
+     * @param reservationId The ID of the reservation to cancel.
+     * @return true if cancellation was successful.
+     */
+    public boolean cancelReservation(UUID reservationId, User user) {
+        if (lanes != null) {
+            Reservation res = findById(reservationId);
             if (res == null) {
                 throw new IllegalArgumentException("Reservation not found.");
             }
+            return lanes.run(res.getEventId(), () -> cancel(reservationId, user));
+        }
+        return cancel(reservationId, user);
+    }
 
-            // 2. Find the corresponding event and ticket category
-            Event evt = eventSvc.findById(res.getEventId());
-            TicketCategory cat = evt.getCategories().stream()
-                    .filter(c -> c.getName().equals(res.getCategoryName()))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException(
-                            "Could not find matching ticket category for this old reservation."));
-
-            // 3. Restore the ticket count
-            cat.restore(res.getQuantity());
+    private boolean cancel(UUID reservationId, User user) {
+        try {
+            boolean cancelled = db.inTransaction(() -> {
+                // 1. Find the reservation
+                Reservation res = db.loadReservationById(reservationId);
+                if (res == null) {
+                    throw new IllegalArgumentException("Reservation not found.");
+                }
 
-            // 4. Persist the updated ticket availability
-            db.updateCategory(evt.getEventId(), cat.getName(), cat.getAvailable());
+                // 2. Restore the ticket count relative to the current value
+                if (!db.restoreTickets(res.getCategoryId(), res.getQuantity())) {
+                    throw new IllegalStateException(
+                            "Could not find matching ticket category for this old reservation.");
+                }
 
-            // 5. Delete the reservation from the database
-            db.deleteReservation(reservationId.toString());
+                // 3. Delete the reservation and its user link, committed together with the restore
+                UUID owner = db.findReservationOwner(reservationId);
+                db.deleteReservation(reservationId);
+                if (owner != null) {
+                    db.afterCommit(() -> users.reservationRemoved(owner, reservationId));
+                }
+                db.afterCommit(() -> recent.invalidate(reservationId));
+                db.afterCommit(() -> inventory.restored(res.getEventId(), res.getCategoryName(), res.getQuantity()));
 
-            return true;
+                return true;
+            });
+            if (user != null) {
+                user.removeReservation(reservationId);
+            }
+            return cancelled;
         } catch (SQLException e) {
             throw new RuntimeException("DB error during cancellation", e);
         }
     }
 
+    /**
+     * Finishes the work queued on lanes, commits reservations still queued
+     * for group commit, and stops those threads; later reservations and
+     * cancellations fail with a {@link ServiceClosedException}. A no-op in
+     * direct mode.
+     */
+    @Override
+    public void close() {
+        // Lanes first: their queued tasks may still hand work to the writer
+        if (lanes != null) {
+            lanes.close();
+        }
+        if (groupCommit != null) {
+            groupCommit.close();
+        }
+    }
+
+    /** Queue depth and service time of each lane; empty unless lanes are enabled. */
+    public List<LaneStats> getLaneStats() {
+        return lanes != null ? lanes.stats() : List.of();
+    }
+
 }
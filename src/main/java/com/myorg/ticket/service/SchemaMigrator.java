@@ -0,0 +1,322 @@
+package com.myorg.ticket.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Brings the SQLite schema up to date with an ordered list of versioned
+ * migrations, recorded in the {@code schema_version} table.
+ *
+ * A database that is already current costs a single metadata query at
+ * startup; no DDL runs. Each pending migration commits in its own
+ * transaction together with its version row, so an interrupted upgrade
+ * resumes where it stopped. Databases created before versioning existed
+ * start at version 0; migration 1 only uses IF NOT EXISTS, so it adopts
+ * them unchanged.
+ */
+class SchemaMigrator {
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "base schema",
+                    """
+                    CREATE TABLE IF NOT EXISTS events (
+                      event_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                      uuid TEXT NOT NULL,
+                      name TEXT NOT NULL,
+                      date_time TEXT NOT NULL,
+                      location TEXT NOT NULL
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS ticket_categories (
+                      event_id INTEGER NOT NULL,
+                      category_name TEXT NOT NULL,
+                      price REAL NOT NULL,
+                      available INTEGER NOT NULL,
+                      PRIMARY KEY (event_id, category_name),
+                      FOREIGN KEY(event_id) REFERENCES events(event_id)
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS reservations (
+                      id TEXT PRIMARY KEY,
+                      event_id INTEGER NOT NULL,
+                      category_name TEXT NOT NULL,
+                      quantity INTEGER NOT NULL,
+                      reserved_at TEXT NOT NULL,
+                      FOREIGN KEY(event_id, category_name) REFERENCES ticket_categories(event_id, category_name)
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS users (
+                      id TEXT PRIMARY KEY,
+                      username TEXT NOT NULL UNIQUE
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS user_reservations (
+                      user_id TEXT NOT NULL,
+                      reservation_id TEXT NOT NULL,
+                      PRIMARY KEY (user_id, reservation_id),
+                      FOREIGN KEY(user_id) REFERENCES users(id),
+                      FOREIGN KEY(reservation_id) REFERENCES reservations(id)
+                    )
+                    """),
+
+            // Date-range search; ISO-8601 text sorts chronologically
+            new Migration(2, "index events by date_time",
+                    "CREATE INDEX IF NOT EXISTS idx_events_date_time ON events(date_time)"),
+
+            // deleteReservation (links by reservation), reservations per event, event uuid lookups
+            new Migration(3, "secondary indexes for hot lookups",
+                    "CREATE INDEX IF NOT EXISTS idx_user_reservations_reservation ON user_reservations(reservation_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_reservations_event ON reservations(event_id)",
+                    "CREATE INDEX IF NOT EXISTS idx_events_uuid ON events(uuid)"),
+
+            // Categories get integer ids; reservations reference them instead
+            // of repeating the category name. SQLite cannot change a primary
+            // key in place, so both tables are rebuilt and copied.
+            new Migration(4, "integer category ids",
+                    """
+                    CREATE TABLE ticket_categories_v4 (
+                      category_id INTEGER PRIMARY KEY,
+                      event_id INTEGER NOT NULL,
+                      category_name TEXT NOT NULL,
+                      price REAL NOT NULL,
+                      available INTEGER NOT NULL,
+                      UNIQUE (event_id, category_name),
+                      FOREIGN KEY(event_id) REFERENCES events(event_id)
+                    )
+                    """,
+                    """
+                    INSERT INTO ticket_categories_v4(event_id, category_name, price, available)
+                    SELECT event_id, category_name, price, available
+                    FROM ticket_categories
+                    ORDER BY event_id, category_name
+                    """,
+                    // Keep reservations whose category is gone, under an empty placeholder
+                    """
+                    INSERT OR IGNORE INTO ticket_categories_v4(event_id, category_name, price, available)
+                    SELECT DISTINCT event_id, category_name, 0, 0
+                    FROM reservations
+                    """,
+                    """
+                    CREATE TABLE reservations_v4 (
+                      id TEXT PRIMARY KEY,
+                      event_id INTEGER NOT NULL,
+                      category_id INTEGER NOT NULL,
+                      quantity INTEGER NOT NULL,
+                      reserved_at TEXT NOT NULL,
+                      FOREIGN KEY(category_id) REFERENCES ticket_categories(category_id)
+                    )
+                    """,
+                    """
+                    INSERT INTO reservations_v4(id, event_id, category_id, quantity, reserved_at)
+                    SELECT r.id, r.event_id, c.category_id, r.quantity, r.reserved_at
+                    FROM reservations r
+                    JOIN ticket_categories_v4 c
+                      ON c.event_id = r.event_id AND c.category_name = r.category_name
+                    """,
+                    "DROP TABLE reservations",
+                    "DROP TABLE ticket_categories",
+                    "ALTER TABLE ticket_categories_v4 RENAME TO ticket_categories",
+                    "ALTER TABLE reservations_v4 RENAME TO reservations",
+                    "CREATE INDEX idx_reservations_event ON reservations(event_id)"),
+
+            // Reservation and user ids become 16-byte BLOBs instead of
+            // 36-character text, which more than halves every key and index
+            // entry that holds one. Reservations and links have no use for a
+            // separate rowid, so they are clustered on their keys.
+            new Migration(5, "binary uuid keys",
+                    """
+                    CREATE TABLE users_v5 (
+                      id BLOB PRIMARY KEY,
+                      username TEXT NOT NULL UNIQUE
+                    )
+                    """,
+                    "INSERT INTO users_v5(id, username) SELECT unhex(replace(id, '-', '')), username FROM users",
+                    """
+                    CREATE TABLE reservations_v5 (
+                      id BLOB PRIMARY KEY,
+                      event_id INTEGER NOT NULL,
+                      category_id INTEGER NOT NULL,
+                      quantity INTEGER NOT NULL,
+                      reserved_at TEXT NOT NULL,
+                      FOREIGN KEY(category_id) REFERENCES ticket_categories(category_id)
+                    ) WITHOUT ROWID
+                    """,
+                    """
+                    INSERT INTO reservations_v5(id, event_id, category_id, quantity, reserved_at)
+                    SELECT unhex(replace(id, '-', '')), event_id, category_id, quantity, reserved_at
+                    FROM reservations
+                    """,
+                    """
+                    CREATE TABLE user_reservations_v5 (
+                      user_id BLOB NOT NULL,
+                      reservation_id BLOB NOT NULL,
+                      PRIMARY KEY (user_id, reservation_id),
+                      FOREIGN KEY(user_id) REFERENCES users(id),
+                      FOREIGN KEY(reservation_id) REFERENCES reservations(id)
+                    ) WITHOUT ROWID
+                    """,
+                    """
+                    INSERT INTO user_reservations_v5(user_id, reservation_id)
+                    SELECT unhex(replace(user_id, '-', '')), unhex(replace(reservation_id, '-', ''))
+                    FROM user_reservations
+                    """,
+                    "DROP TABLE user_reservations",
+                    "DROP TABLE reservations",
+                    "DROP TABLE users",
+                    "ALTER TABLE users_v5 RENAME TO users",
+                    "ALTER TABLE reservations_v5 RENAME TO reservations",
+                    "ALTER TABLE user_reservations_v5 RENAME TO user_reservations",
+                    "CREATE INDEX idx_reservations_event ON reservations(event_id)",
+                    "CREATE INDEX idx_user_reservations_reservation ON user_reservations(reservation_id)"),
+
+            // Timestamps become INTEGER microseconds since the epoch (see
+            // TimestampCodec) instead of ISO-8601 text, so reading a row no
+            // longer parses a date. TEXT affinity would turn the integers
+            // back into text, so both tables are rebuilt.
+            new Migration(6, "epoch timestamps",
+                    """
+                    CREATE TABLE events_v6 (
+                      event_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                      uuid TEXT NOT NULL,
+                      name TEXT NOT NULL,
+                      date_time INTEGER NOT NULL,
+                      location TEXT NOT NULL
+                    )
+                    """,
+                    "INSERT INTO events_v6(event_id, uuid, name, date_time, location) "
+                            + "SELECT event_id, uuid, name, " + isoToMicros("date_time") + ", location FROM events",
+                    // Copying explicit ids only advances the sequence to the highest id left (and
+                    // not at all if none is); carry the old one over so ids of deleted events
+                    // are not handed out again
+                    """
+                    UPDATE sqlite_sequence
+                    SET seq = MAX(seq, COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'events'), 0))
+                    WHERE name = 'events_v6'
+                    """,
+                    """
+                    INSERT INTO sqlite_sequence(name, seq)
+                    SELECT 'events_v6', seq FROM sqlite_sequence
+                    WHERE name = 'events' AND NOT EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = 'events_v6')
+                    """,
+                    """
+                    CREATE TABLE reservations_v6 (
+                      id BLOB PRIMARY KEY,
+                      event_id INTEGER NOT NULL,
+                      category_id INTEGER NOT NULL,
+                      quantity INTEGER NOT NULL,
+                      reserved_at INTEGER NOT NULL,
+                      FOREIGN KEY(category_id) REFERENCES ticket_categories(category_id)
+                    ) WITHOUT ROWID
+                    """,
+                    "INSERT INTO reservations_v6(id, event_id, category_id, quantity, reserved_at) "
+                            + "SELECT id, event_id, category_id, quantity, " + isoToMicros("reserved_at")
+                            + " FROM reservations",
+                    "DROP TABLE reservations",
+                    "DROP TABLE events",
+                    "ALTER TABLE events_v6 RENAME TO events",
+                    "ALTER TABLE reservations_v6 RENAME TO reservations",
+                    "CREATE INDEX idx_events_date_time ON events(date_time)",
+                    "CREATE INDEX idx_events_uuid ON events(uuid)",
+                    "CREATE INDEX idx_reservations_event ON reservations(event_id)"));
+
+    /**
+     * SQL converting an ISO-8601 local date-time column, as written by
+     * {@code LocalDateTime.toString()}, to epoch microseconds. Seconds and
+     * the fraction are optional there; fraction digits beyond six are dropped.
+     */
+    private static String isoToMicros(String column) {
+        return "unixepoch(substr(" + column + ", 1, 19)) * 1000000"
+                + " + CASE WHEN substr(" + column + ", 20, 1) = '.'"
+                + " THEN CAST(substr(substr(" + column + ", 21) || '000000', 1, 6) AS INTEGER)"
+                + " ELSE 0 END";
+    }
+
+    /** Highest version this build knows about. */
+    static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Applies every migration newer than the database's current version.
+     * Expects the writer connection, in autocommit mode.
+     */
+    void migrate(Connection conn) throws SQLException {
+        if (currentVersion(conn) >= latestVersion()) {
+            return; // already current: skip all DDL
+        }
+
+        for (Migration m : MIGRATIONS) {
+            conn.setAutoCommit(false);
+            try {
+                // Re-check inside the write transaction: another process may
+                // have applied this step while we were waiting for the lock.
+                if (currentVersion(conn) < m.version) {
+                    apply(conn, m);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new SQLException("Schema migration " + m.version + " (" + m.description + ") failed", e);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'schema_version'")) {
+            if (!rs.next()) {
+                return 0;
+            }
+        }
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void apply(Connection conn, Migration m) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                  version INTEGER PRIMARY KEY,
+                  description TEXT NOT NULL,
+                  applied_at TEXT NOT NULL
+                )
+            """);
+            for (String sql : m.statements) {
+                st.execute(sql);
+            }
+        }
+        String sql = "INSERT INTO schema_version(version, description, applied_at) VALUES(?,?,?)";
+        try (PreparedStatement p = conn.prepareStatement(sql)) {
+            p.setInt(1, m.version);
+            p.setString(2, m.description);
+            p.setString(3, LocalDateTime.now().toString());
+            p.executeUpdate();
+        }
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String[] statements;
+
+        private Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.myorg.ticket.service;
+
+/**
+ * Work was handed to a {@link ReservationService} after
+ * {@link ReservationService#close()}: its lanes or group-commit writer no
+ * longer accept it. Nothing was written.
+ */
+public class ServiceClosedException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public ServiceClosedException(String message) {
+        super(message);
+    }
+
+    public ServiceClosedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,37 @@
+package com.myorg.ticket.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Converts timestamps to and from the INTEGER columns that store them:
+ * microseconds since 1970-01-01T00:00, with the local date-time read as if
+ * it were UTC. No time zone is involved, so values round-trip exactly on any
+ * machine and sort chronologically; decoding is arithmetic instead of
+ * parsing text.
+ */
+final class TimestampCodec {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long MICROS_PER_DAY = 86_400L * MICROS_PER_SECOND;
+
+    private TimestampCodec() {
+    }
+
+    /** Sub-microsecond digits are dropped. */
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + time.getNano() / 1_000;
+    }
+
+    /** Midnight at the start of {@code date}; allocates nothing. */
+    static long startOfDay(LocalDate date) {
+        return date.toEpochDay() * MICROS_PER_DAY;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        long seconds = Math.floorDiv(micros, MICROS_PER_SECOND);
+        int nanos = (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1_000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,206 @@
+package com.myorg.ticket.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import com.myorg.ticket.model.User;
+
+/**
+ * Expiring cache of logged-in users and their reservation ids, reachable by
+ * username and by user id, shared by every service in the process.
+ *
+ * Entries are immutable snapshots and {@link #get} hands out a fresh
+ * {@link User} each time, so callers may modify what they get back. Services
+ * that change a user's reservations update the cached snapshot after their
+ * transaction commits, so a cached login always matches the database as far
+ * as this process is concerned.
+ */
+final class UserCache {
+    private static final long TTL_MILLIS =
+            Duration.ofSeconds(Long.getLong("ticket.cache.userTtlSeconds", 300L)).toMillis();
+    private static final int MAX_USERS = Integer.getInteger("ticket.cache.users", 10_000);
+    /** Power of two; users sharing a stripe only cost each other a cache fill. */
+    private static final int VERSION_STRIPES = 1_024;
+    private static UserCache instance;
+
+    private final Map<String, Entry> byUsername = new ConcurrentHashMap<>();
+    private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    private final AtomicLong changes = new AtomicLong();
+    /** Value of {@link #changes} at the last change, per stripe of user ids; guarded by {@code writeLock}. */
+    private final long[] changedAt = new long[VERSION_STRIPES];
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private UserCache() {
+    }
+
+    static synchronized UserCache getInstance() {
+        if (instance == null) {
+            instance = new UserCache();
+        }
+        return instance;
+    }
+
+    /** A copy of the cached user, with reservations, or null if absent or expired. */
+    User get(String username) {
+        Entry e = live(byUsername.get(username));
+        if (e == null) {
+            return null;
+        }
+        User user = new User(e.id, e.username);
+        user.setPastReservations(e.reservations);
+        return user;
+    }
+
+    /** Caches a snapshot of {@code user}, replacing any previous entry. */
+    void put(User user) {
+        synchronized (writeLock) {
+            store(snapshot(user));
+        }
+    }
+
+    /**
+     * Stamp to take before loading a user from the database; see
+     * {@link #putIfUnchanged}.
+     */
+    long stamp() {
+        return changes.get();
+    }
+
+    /**
+     * Caches a user loaded from the database unless that user's reservations
+     * changed since {@code stamp}: the load may have missed the change, and
+     * the cache was not there to record it. Changes to other users do not
+     * count, so logins keep being cached under reservation traffic.
+     */
+    void putIfUnchanged(User user, long stamp) {
+        synchronized (writeLock) {
+            if (changedAt[stripe(user.getId())] <= stamp) {
+                store(snapshot(user));
+            }
+        }
+    }
+
+    /**
+     * Records committed reservations of a cached user; no-op otherwise. Pass
+     * a whole order at once: every call copies the user's history.
+     */
+    void reservationsAdded(UUID userId, List<UUID> reservationIds) {
+        update(userId, ids -> {
+            List<UUID> copy = new ArrayList<>(ids.size() + reservationIds.size());
+            copy.addAll(ids);
+            copy.addAll(reservationIds);
+            return copy;
+        });
+    }
+
+    /** Records a committed cancellation of a cached user; no-op otherwise. */
+    void reservationRemoved(UUID userId, UUID reservationId) {
+        update(userId, ids -> {
+            List<UUID> copy = new ArrayList<>(ids);
+            copy.remove(reservationId);
+            return copy;
+        });
+    }
+
+    void invalidate(UUID userId) {
+        synchronized (writeLock) {
+            Entry e = byId.remove(userId);
+            if (e != null) {
+                byUsername.remove(e.username, e);
+            }
+        }
+    }
+
+    CacheStats stats() {
+        return new CacheStats(MAX_USERS, byId.size(), hits.get(), misses.get(), evictions.get());
+    }
+
+    private Entry live(Entry e) {
+        if (e == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (e.expiresAt < System.currentTimeMillis()) {
+            invalidate(e.id);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return e;
+    }
+
+    private void update(UUID userId, UnaryOperator<List<UUID>> change) {
+        synchronized (writeLock) {
+            changedAt[stripe(userId)] = changes.incrementAndGet();
+            Entry e = byId.get(userId);
+            if (e != null) {
+                store(new Entry(e.id, e.username, change.apply(e.reservations), e.expiresAt));
+            }
+        }
+    }
+
+    static int stripe(UUID userId) {
+        return userId.hashCode() & (VERSION_STRIPES - 1);
+    }
+
+    private static Entry snapshot(User user) {
+        return new Entry(user.getId(), user.getUsername(), user.getPastReservations(),
+                System.currentTimeMillis() + TTL_MILLIS);
+    }
+
+    /** Caller holds {@code writeLock}. */
+    private void store(Entry e) {
+        Entry previous = byId.put(e.id, e);
+        if (previous != null && !previous.username.equals(e.username)) {
+            byUsername.remove(previous.username, previous);
+        }
+        byUsername.put(e.username, e);
+        if (byId.size() > MAX_USERS) {
+            evict();
+        }
+    }
+
+    /** Drops expired entries, then arbitrary ones until back under the bound. */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        removeWhile(e -> e.expiresAt < now);
+        removeWhile(e -> byId.size() > MAX_USERS);
+    }
+
+    private void removeWhile(Predicate<Entry> condition) {
+        for (Iterator<Entry> it = byId.values().iterator(); it.hasNext() && byId.size() > MAX_USERS; ) {
+            Entry e = it.next();
+            if (condition.test(e)) {
+                it.remove();
+                byUsername.remove(e.username, e);
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final UUID id;
+        private final String username;
+        private final List<UUID> reservations;
+        private final long expiresAt;
+
+        private Entry(UUID id, String username, List<UUID> reservations, long expiresAt) {
+            this.id = id;
+            this.username = username;
+            this.reservations = List.copyOf(reservations);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
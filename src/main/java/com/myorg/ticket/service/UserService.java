@@ -9,6 +9,7 @@ import java.util.UUID;
 
 public class UserService {
     private final PersistenceService db = PersistenceService.getInstance();
+    private final UserCache cache = UserCache.getInstance();
 
     /**
      * Attempts to log in a user and load their reservations.
@@ -18,13 +19,20 @@ public class UserService {
      *         empty Optional.
      */
     public Optional<User> login(String username) {
+        // Repeated logins are served from the session cache
+        User cached = cache.get(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
 
         try {
+            long stamp = cache.stamp();
             User user = db.findUserByUsername(username);
 
             if (user != null) {
-                List<UUID> reservationIds = db.loadReservationIdsForUser(user.getId().toString());
+                List<UUID> reservationIds = db.loadReservationIdsForUser(user.getId());
                 user.setPastReservations(reservationIds);
+                cache.putIfUnchanged(user, stamp);
                 return Optional.of(user);
             }
         } catch (SQLException e) {
@@ -45,8 +53,8 @@ public class UserService {
      * @throws IllegalStateException if the username is already taken.
      */
     public User signUp(String username) {
-        // 1. Check if user already exists
-        if (login(username).isPresent()) {
+        // 1. Check if user already exists; no need to load their reservations
+        if (exists(username)) {
             throw new IllegalStateException("Username '" + username + "' is already taken.");
         }
 
@@ -54,6 +62,7 @@ public class UserService {
         try {
             User newUser = new User(username);
             db.saveUser(newUser);
+            cache.put(newUser);
             return newUser;
         } catch (SQLException e) {
             // In a real app, use a logger
@@ -61,4 +70,20 @@ public class UserService {
         }
     }
 
+    private boolean exists(String username) {
+        if (cache.get(username) != null) {
+            return true;
+        }
+        try {
+            return db.findUserByUsername(username) != null;
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error during sign up", e);
+        }
+    }
+
+    /** Hit ratio and evictions of the user session cache */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.myorg.ticket.service;
+
+import java.util.UUID;
+
+/**
+ * Converts UUIDs to and from the 16-byte big-endian form stored in BLOB
+ * key columns. Works on the two 64-bit halves directly, so no string is
+ * formatted or parsed on either side.
+ */
+final class UuidCodec {
+
+    static final int BYTES = 16;
+
+    private UuidCodec() {
+    }
+
+    static byte[] toBytes(UUID id) {
+        byte[] b = new byte[BYTES];
+        putLong(b, 0, id.getMostSignificantBits());
+        putLong(b, 8, id.getLeastSignificantBits());
+        return b;
+    }
+
+    static UUID fromBytes(byte[] b) {
+        if (b == null || b.length != BYTES) {
+            throw new IllegalArgumentException("Expected a 16-byte UUID");
+        }
+        return new UUID(getLong(b, 0), getLong(b, 8));
+    }
+
+    private static void putLong(byte[] b, int off, long v) {
+        for (int i = 7; i >= 0; i--) {
+            b[off + i] = (byte) v;
+            v >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] b, int off) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v = (v << 8) | (b[off + i] & 0xFF);
+        }
+        return v;
+    }
+}
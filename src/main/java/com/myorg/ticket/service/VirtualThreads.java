@@ -0,0 +1,43 @@
+package com.myorg.ticket.service;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executors that use virtual threads where the JDK has them, shared by the
+ * async facade and the API server.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * One virtual thread per task where available (JDK 21+). Looked up
+     * reflectively so the project still builds and runs on JDK 17; there,
+     * and on JDK 19/20 without preview features, {@code fallback} supplies
+     * the executor instead.
+     */
+    public static ExecutorService newPerTaskExecutor(Supplier<ExecutorService> fallback) {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return fallback.get();
+        }
+    }
+
+    /** Daemon platform threads named {@code prefix-1}, {@code prefix-2}, ... for fallback pools. */
+    public static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.myorg.ticket.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background thread that keeps the WAL file bounded.
+ *
+ * Every interval it runs a PASSIVE checkpoint, which copies committed pages
+ * back into the database without waiting on readers or the writer. If the
+ * log has grown past the profile's limit (e.g. because long reads kept it
+ * from being reset), it escalates to a TRUNCATE checkpoint, which waits up to
+ * the busy timeout and then shrinks the WAL file to zero bytes.
+ *
+ * Runs on its own connection so checkpoints never queue behind the pooled
+ * writer.
+ */
+class WalCheckpointer implements AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(WalCheckpointer.class.getName());
+
+    private final Connection connection;
+    private final int walSizeLimitPages;
+    private final ScheduledExecutorService scheduler;
+
+    WalCheckpointer(String url, DurabilityProfile profile) throws SQLException {
+        this.connection = DriverManager.getConnection(url, profile.toConfig().toProperties());
+        this.walSizeLimitPages = profile.getWalSizeLimitPages();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wal-checkpointer");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = profile.getCheckpointIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::checkpoint, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void checkpoint() {
+        try {
+            int walPages = run("PASSIVE");
+            if (walPages > walSizeLimitPages) {
+                run("TRUNCATE");
+            }
+        } catch (SQLException e) {
+            // Never let one failure cancel the schedule; the next run retries
+            LOG.log(Level.WARNING, "WAL checkpoint failed", e);
+        }
+    }
+
+    /** @return size of the WAL, in pages, as seen by the checkpoint */
+    private int run(String mode) throws SQLException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            // columns: busy, pages in log, pages checkpointed
+            return rs.next() ? Math.max(0, rs.getInt(2)) : 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            connection.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            LOG.log(Level.FINE, "Closing checkpoint connection failed", e);
+        }
+    }
+}
@@ -41,7 +41,7 @@ public class CancelReservationCommand implements Command {
                 return;
             }
 
-            boolean success = reservationService.cancelReservation(UUID.fromString(id));
+            boolean success = reservationService.cancelReservation(UUID.fromString(id), ui.getCurrentUser());
 
             if (success) {
                 ui.println("Reservation cancelled successfully.");
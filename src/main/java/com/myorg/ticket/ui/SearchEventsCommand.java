@@ -8,6 +8,8 @@ import com.myorg.ticket.model.TicketCategory;
 import com.myorg.ticket.service.EventService;
 
 public class SearchEventsCommand implements Command {
+    private static final int MAX_KEYWORD_RESULTS = 20;
+
     private final ConsoleUI ui;
     private final EventService eventSvc;
 
@@ -31,8 +33,11 @@ public class SearchEventsCommand implements Command {
         try {
             LocalDate start = ui.promptDate("Start date (yyyy-MM-dd): ");
             LocalDate end = ui.promptDate("End date   (yyyy-MM-dd): ");
+            String keywords = ui.prompt("Name or venue (optional): ");
 
-            List<Event> list = eventSvc.search(start, end);
+            List<Event> list = keywords == null || keywords.isBlank()
+                    ? eventSvc.search(start, end)
+                    : eventSvc.searchText(keywords, start, end, MAX_KEYWORD_RESULTS);
             if (list.isEmpty()) {
                 ui.println("No events found.");
                 return;
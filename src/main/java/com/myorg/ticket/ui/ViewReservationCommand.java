@@ -4,6 +4,9 @@ package com.myorg.ticket.ui;
 import com.myorg.ticket.model.Reservation;
 import com.myorg.ticket.service.ReservationService;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class ViewReservationCommand implements Command {
@@ -28,18 +31,38 @@ public class ViewReservationCommand implements Command {
     @Override
     public void execute() {
         try {
-            UUID rid = UUID.fromString(ui.prompt("Reservation ID: "));
-            Reservation r = svc.findById(rid);
-            if (r == null) {
-                ui.println("Not found.");
-            } else {
-                ui.println(String.format(
-                        "Reservation %s: event %s, category %s, qty %d, at %s",
-                        r.getId(), r.getEventId(), r.getCategoryName(),
-                        r.getQuantity(), r.getReservedAt()));
+            String[] ids = ui.prompt("Reservation ID: ").split(",");
+            if (ids.length == 1) {
+                print(svc.findById(UUID.fromString(ids[0].trim())));
+                return;
+            }
+            // Several IDs (comma-separated) are looked up together
+            List<UUID> rids = new ArrayList<>();
+            for (String id : ids) {
+                rids.add(UUID.fromString(id.trim()));
+            }
+            Map<UUID, Reservation> found = svc.findByIds(rids);
+            for (UUID rid : rids) {
+                Reservation r = found.get(rid);
+                if (r == null) {
+                    ui.println("Not found: " + rid);
+                } else {
+                    print(r);
+                }
             }
         } catch (Exception ex) {
             ui.println("Error loading reservation: " + ex.getMessage());
         }
     }
+
+    private void print(Reservation r) {
+        if (r == null) {
+            ui.println("Not found.");
+        } else {
+            ui.println(String.format(
+                    "Reservation %s: event %s, category %s, qty %d, at %s",
+                    r.getId(), r.getEventId(), r.getCategoryName(),
+                    r.getQuantity(), r.getReservedAt()));
+        }
+    }
 }
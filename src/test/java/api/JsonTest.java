@@ -0,0 +1,72 @@
+package api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.myorg.ticket.api.Json;
+
+public class JsonTest {
+
+    @Test
+    void testParseObject() {
+        Object parsed = Json.parse(" {\"name\": \"Concert\", \"eventId\": 42, \"price\": 99.5,"
+                + " \"tags\": [true, null], \"venue\": {}} ");
+
+        assertTrue(parsed instanceof Map, "Objects should parse to maps");
+        Map<?, ?> map = (Map<?, ?>) parsed;
+        assertEquals("Concert", map.get("name"));
+        assertEquals(42L, map.get("eventId"), "Integral numbers should parse to Long");
+        assertEquals(99.5, map.get("price"), "Fractional numbers should parse to Double");
+        assertEquals(List.of(true), ((List<?>) map.get("tags")).subList(0, 1));
+        assertNull(((List<?>) map.get("tags")).get(1));
+        assertEquals(Map.of(), map.get("venue"));
+    }
+
+    @Test
+    void testStringEscapes() {
+        String text = "Mor ve Ötesi \"Live\"\n\\ \u0001";
+        String json = Json.write(text);
+
+        assertEquals("\"Mor ve Ötesi \\\"Live\\\"\\n\\\\ \\u0001\"", json);
+        assertEquals(text, Json.parse(json), "Written strings should parse back unchanged");
+        assertEquals("İ", Json.parse("\"\\u0130\""));
+    }
+
+    @Test
+    void testWriteKeepsFieldOrder() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", 7);
+        map.put("name", "Hall");
+        map.put("categories", List.of(1, 2.5));
+        map.put("missing", null);
+
+        assertEquals("{\"id\":7,\"name\":\"Hall\",\"categories\":[1,2.5],\"missing\":null}", Json.write(map));
+    }
+
+    @Test
+    void testRejectsMalformedInput() {
+        for (String bad : new String[] {"", "{", "{\"a\" 1}", "[1,]", "{\"a\":1} x", "\"open", "tru", "{a:1}"}) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(bad), "Should reject: " + bad);
+        }
+    }
+
+    @Test
+    void testNestingLimit() {
+        String deepest = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+        assertTrue(Json.parse(deepest) instanceof List, "Nesting up to the limit should parse");
+        String sibling = "[".repeat(Json.MAX_DEPTH - 1) + "]".repeat(Json.MAX_DEPTH - 1);
+        assertTrue(Json.parse("[{\"a\":[[]]}," + sibling + "]") instanceof List,
+                "Closed levels should not count towards the limit");
+
+        String tooDeep = "{\"a\":".repeat(Json.MAX_DEPTH + 1);
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(tooDeep));
+        String hostile = "[".repeat(100_000);
+        assertThrows(IllegalArgumentException.class, () -> Json.parse(hostile),
+                "Deep input should be rejected rather than overflow the stack");
+    }
+}
@@ -0,0 +1,101 @@
+package bench;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.myorg.ticket.api.ApiServer;
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.ReservationService;
+import com.myorg.ticket.service.UserService;
+
+/**
+ * Concurrent clients against an in-process API server: a mix of event
+ * lookups, searches and reservations over HTTP, then the server's own
+ * per-route latency figures.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.ApiLoadBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="clients perClient"]
+ * </pre>
+ */
+public class ApiLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int perClient = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        File dbFile = Files.createTempFile("api-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        System.setProperty("ticket.db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath());
+
+        EventService events = new EventService();
+        int eventId = 0;
+        for (int i = 0; i < 100; i++) {
+            eventId = events.createEvent(Event.builder()
+                    .name("Tour night " + i)
+                    .dateTime(LocalDateTime.now().plusDays(i))
+                    .location(i % 2 == 0 ? "Arena" : "Hall")
+                    .addCategory("Standard", 50.0, clients * perClient)
+                    .build()).getEventId();
+        }
+        int lastEvent = eventId;
+
+        ApiServer server = new ApiServer(new InetSocketAddress("127.0.0.1", 0),
+                events, new ReservationService(), new UserService());
+        server.start();
+        String base = "http://127.0.0.1:" + server.getPort();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perClient; i++) {
+                    HttpRequest request;
+                    switch ((client + i) % 4) {
+                        case 0 -> request = HttpRequest.newBuilder(URI.create(base + "/events/" + (lastEvent - i % 100))).build();
+                        case 1 -> request = HttpRequest.newBuilder(URI.create(base + "/events?q=tour+arena&limit=10")).build();
+                        case 2 -> request = HttpRequest.newBuilder(URI.create(base + "/reservations"))
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"eventId\":" + lastEvent + ",\"category\":\"Standard\",\"quantity\":1}"))
+                                .build();
+                        default -> request = HttpRequest.newBuilder(URI.create(base + "/events?from="
+                                + LocalDateTime.now().toLocalDate() + "&to=" + LocalDateTime.now().toLocalDate().plusDays(7))).build();
+                    }
+                    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() >= 400) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        long nanos = System.nanoTime() - start;
+        pool.shutdown();
+
+        int total = clients * perClient;
+        System.out.printf("%d clients, %d requests in %.2f s: %.0f requests/s, %d failed%n",
+                clients, total, nanos / 1e9, total / (nanos / 1e9), failures.get());
+        System.out.print(server.getMetrics());
+        server.stop(0);
+    }
+}
@@ -0,0 +1,99 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.model.Reservation;
+import com.myorg.ticket.model.User;
+import com.myorg.ticket.service.AsyncTicketService;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.ReservationService;
+import com.myorg.ticket.service.UserService;
+
+/**
+ * "My reservations" pages (a user's reservations plus the events they are
+ * for) for many users: one blocking call after another, against the async
+ * facade fanning out every lookup of every page at once.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.AsyncFanOutBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="users eventsPerUser maxInFlight"]
+ * </pre>
+ */
+public class AsyncFanOutBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int eventsPerUser = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int maxInFlight = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+
+        File dbFile = Files.createTempFile("async-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        System.setProperty("ticket.db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath());
+
+        EventService events = new EventService();
+        ReservationService reservations = new ReservationService();
+        UserService users = new UserService();
+        List<Integer> eventIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            eventIds.add(events.createEvent(Event.builder()
+                    .name("Show " + i)
+                    .dateTime(LocalDateTime.now().plusDays(i + 1))
+                    .location("Hall " + i % 5)
+                    .addCategory("Standard", 40.0, userCount * eventsPerUser)
+                    .build()).getEventId());
+        }
+        List<User> buyers = new ArrayList<>();
+        for (int u = 0; u < userCount; u++) {
+            User user = users.signUp("fan-" + u);
+            for (int e = 0; e < eventsPerUser; e++) {
+                reservations.makeReservation(eventIds.get((u + e * 7) % eventIds.size()), "Standard", 1, user);
+            }
+            buyers.add(user);
+        }
+
+        try (AsyncTicketService async = AsyncTicketService.builder()
+                .events(events).reservations(reservations).users(users)
+                .maxInFlight(maxInFlight)
+                .build()) {
+            for (int round = 0; round < 2; round++) { // first round warms up
+                System.out.println(round == 0 ? "-- warm-up" : "-- measured");
+
+                long start = System.nanoTime();
+                int found = 0;
+                for (User user : buyers) {
+                    Map<Integer, Event> page = new LinkedHashMap<>();
+                    for (Reservation r : reservations.listByUser(user)) {
+                        page.computeIfAbsent(r.getEventId(), events::findById);
+                    }
+                    found += page.size();
+                }
+                report("blocking, one by one", userCount, found, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                List<CompletableFuture<Map<Integer, Event>>> pages = new ArrayList<>();
+                for (User user : buyers) {
+                    pages.add(async.listByUser(user).thenCompose(rs ->
+                            async.findEvents(rs.stream().map(Reservation::getEventId).toList())));
+                }
+                found = 0;
+                for (CompletableFuture<Map<Integer, Event>> page : pages) {
+                    found += page.join().size();
+                }
+                report("async fan-out (" + maxInFlight + " in flight)", userCount, found, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static void report(String label, int pages, int events, long nanos) {
+        System.out.printf("%-32s %5d pages  %6d events  %8.1f ms  %7.0f pages/s%n",
+                label, pages, events, nanos / 1e6, pages / (nanos / 1e9));
+    }
+}
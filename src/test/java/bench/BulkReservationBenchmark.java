@@ -0,0 +1,74 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.model.User;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.PersistenceService;
+import com.myorg.ticket.service.ReservationLine;
+import com.myorg.ticket.service.ReservationService;
+import com.myorg.ticket.service.UserService;
+
+/**
+ * Group orders spanning three categories ("2 VIP + 4 Standard + 1 Balcony"):
+ * one makeReservation call per line against a single makeReservations call
+ * per order.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.BulkReservationBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="orders"]
+ * </pre>
+ */
+public class BulkReservationBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+
+        File dbFile = Files.createTempFile("bulk-reservation-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        System.setProperty("ticket.db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath());
+
+        PersistenceService db = PersistenceService.getInstance();
+        int eventId = new EventService().createEvent(Event.builder()
+                .name("Group night")
+                .dateTime(LocalDateTime.now().plusDays(30))
+                .location("Arena")
+                .addCategory("VIP", 150.0, orders * 2 * 3)
+                .addCategory("Standard", 50.0, orders * 4 * 3)
+                .addCategory("Balcony", 80.0, orders * 3)
+                .build()).getEventId();
+        User user = new UserService().signUp("group-buyer");
+        ReservationService svc = new ReservationService();
+        List<ReservationLine> order = List.of(
+                new ReservationLine(eventId, "VIP", 2),
+                new ReservationLine(eventId, "Standard", 4),
+                new ReservationLine(eventId, "Balcony", 1));
+
+        for (int round = 0; round < 2; round++) { // first round warms up
+            int n = round == 0 ? orders / 10 : orders;
+            System.out.println(round == 0 ? "-- warm-up" : "-- measured");
+            run("one call per line", db, n, () -> {
+                for (ReservationLine line : order) {
+                    svc.makeReservation(line.getEventId(), line.getCategoryName(), line.getQuantity(), user);
+                }
+            });
+            run("makeReservations", db, n, () -> svc.makeReservations(order, user));
+        }
+    }
+
+    private static void run(String label, PersistenceService db, int orders, Runnable placeOrder) {
+        long commitsBefore = db.getPoolStats().getCommits();
+        long start = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            placeOrder.run();
+        }
+        long nanos = System.nanoTime() - start;
+        long commits = db.getPoolStats().getCommits() - commitsBefore;
+        System.out.printf("%-20s %6d orders  %8.1f us/order  %4.1f commits/order%n",
+                label, orders, nanos / 1e3 / orders, (double) commits / orders);
+    }
+}
@@ -0,0 +1,208 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.service.DurabilityProfile;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.PersistenceService;
+import com.myorg.ticket.service.ReservationService;
+
+/**
+ * Reservation throughput and crash recovery for each durability profile.
+ *
+ * Every profile runs in fresh child JVMs against its own database, since the
+ * profile is fixed when PersistenceService starts:
+ * <ol>
+ * <li>throughput: concurrent buyers reserve one ticket at a time;</li>
+ * <li>recovery: a child reserves in a loop, acknowledging each commit on
+ * stdout, and is killed with SIGKILL mid-stream. The parent then reopens the
+ * database and checks integrity, that every acknowledged reservation survived,
+ * and that sold + available still equals the initial stock.</li>
+ * </ol>
+ * A killed process is an application crash; the page cache survives it, so
+ * this shows that all profiles recover from crashes, not what each loses on
+ * power failure (see {@link DurabilityProfile}).
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.DurabilityBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="threads perThread"]
+ * </pre>
+ */
+public class DurabilityBenchmark {
+    private static final int STOCK = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--child")) {
+            child(args);
+            return;
+        }
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        System.out.printf("%-9s %14s %10s %12s %10s %10s%n",
+                "profile", "reservations/s", "acked", "recovered", "recover ms", "consistent");
+        for (DurabilityProfile profile : DurabilityProfile.values()) {
+            File db = Files.createTempFile("durability-" + profile.name().toLowerCase(), ".db").toFile();
+            String throughput = spawn(profile, db, "throughput", threads, perThread).get(0);
+
+            File crashDb = Files.createTempFile("durability-crash-" + profile.name().toLowerCase(), ".db").toFile();
+            Recovery r = crashAndRecover(profile, crashDb);
+
+            System.out.printf("%-9s %14s %10d %12d %10.1f %10s%n",
+                    profile.name().toLowerCase(), throughput, r.acked, r.recovered,
+                    r.recoverMillis, r.consistent ? "yes" : "NO");
+            for (File f : List.of(db, crashDb)) {
+                deleteWithSidecars(f);
+            }
+        }
+    }
+
+    // ─── Parent side ────────────────────────────────────────────────────────────
+
+    private static final class Recovery {
+        int acked;
+        int recovered;
+        double recoverMillis;
+        boolean consistent;
+    }
+
+    private static Recovery crashAndRecover(DurabilityProfile profile, File db) throws Exception {
+        Process p = start(profile, db, "crash");
+        int acked = 0;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+            String line;
+            while (System.nanoTime() < deadline && (line = out.readLine()) != null) {
+                if (line.startsWith("ACK ")) {
+                    acked = Integer.parseInt(line.substring(4));
+                }
+            }
+            p.destroyForcibly(); // SIGKILL: no shutdown hooks, no final checkpoint
+            p.waitFor();
+        }
+
+        Recovery r = new Recovery();
+        r.acked = acked;
+        long start = System.nanoTime();
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db.getAbsolutePath());
+             Statement st = c.createStatement()) {
+            boolean intact;
+            try (ResultSet rs = st.executeQuery("PRAGMA integrity_check")) {
+                intact = rs.next() && "ok".equals(rs.getString(1));
+            }
+            int sold;
+            try (ResultSet rs = st.executeQuery("SELECT COALESCE(SUM(quantity), 0) FROM reservations")) {
+                sold = rs.next() ? rs.getInt(1) : -1;
+            }
+            int available;
+            try (ResultSet rs = st.executeQuery("SELECT available FROM ticket_categories")) {
+                available = rs.next() ? rs.getInt(1) : -1;
+            }
+            r.recoverMillis = (System.nanoTime() - start) / 1e6;
+            r.recovered = sold;
+            r.consistent = intact && sold >= acked && sold + available == STOCK;
+        }
+        return r;
+    }
+
+    private static List<String> spawn(DurabilityProfile profile, File db, Object... args) throws Exception {
+        Process p = start(profile, db, args);
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        if (p.waitFor() != 0) {
+            throw new IllegalStateException("Benchmark child failed: " + lines);
+        }
+        return lines;
+    }
+
+    private static Process start(DurabilityProfile profile, File db, Object... args) throws Exception {
+        List<String> cmd = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classPath(),
+                "-Dticket.db.url=jdbc:sqlite:" + db.getAbsolutePath(),
+                "-Dticket.db.durability=" + profile.name(),
+                DurabilityBenchmark.class.getName(), "--child"));
+        for (Object a : args) {
+            cmd.add(String.valueOf(a));
+        }
+        return new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    /** Benchmark, application and driver classes; works under exec:java too. */
+    private static String classPath() throws Exception {
+        List<String> entries = new ArrayList<>();
+        for (Class<?> c : List.of(DurabilityBenchmark.class, PersistenceService.class, org.sqlite.JDBC.class)) {
+            entries.add(Paths.get(c.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void deleteWithSidecars(File db) {
+        for (String suffix : List.of("", "-wal", "-shm")) {
+            new File(db.getPath() + suffix).delete();
+        }
+    }
+
+    // ─── Child side ─────────────────────────────────────────────────────────────
+
+    private static void child(String[] args) throws Exception {
+        int eventId = new EventService().createEvent(Event.builder()
+                .name("Durability")
+                .dateTime(LocalDateTime.now().plusDays(1))
+                .location("Disk")
+                .addCategory("Standard", 1.0, STOCK)
+                .build()).getEventId();
+        ReservationService svc = new ReservationService();
+
+        if (args[1].equals("throughput")) {
+            int threads = Integer.parseInt(args[2]);
+            int perThread = Integer.parseInt(args[3]);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        svc.makeReservation(eventId, "Standard", 1, null);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+            System.out.printf("%.1f%n", threads * perThread / seconds);
+        } else {
+            // Reserve until killed, acknowledging each commit as it returns
+            AtomicInteger acked = new AtomicInteger();
+            while (true) {
+                svc.makeReservation(eventId, "Standard", 1, null);
+                System.out.println("ACK " + acked.incrementAndGet());
+                System.out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.service.EventQuery;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.PersistenceService;
+
+/**
+ * Name and venue lookups over a large catalog: the in-memory text index
+ * (top 20, events loaded) against the SQL LIKE filter of EventQuery, with
+ * and without a date range.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.EventTextSearchBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="events"]
+ * </pre>
+ */
+public class EventTextSearchBenchmark {
+
+    private static final String[] ARTISTS = {
+        "Coldplay", "Duman", "Tarkan", "Sezen Aksu", "Metallica", "Adele", "Mor ve Ötesi",
+        "Manga", "Athena", "Teoman", "Sertab Erener", "Pentagram", "Madrigal", "Dolu Kadehi Ters Tut"};
+    private static final String[] KINDS = {"Concert", "Live", "Tour", "Festival", "Acoustic Night", "Unplugged"};
+    private static final String[] CITIES = {"İstanbul", "İzmir", "Ankara", "Bursa", "Antalya", "Eskişehir"};
+    private static final String[] VENUES = {"Arena", "Stadium", "Hall", "Open Air Theatre", "Club", "Kültür Merkezi"};
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final int SPAN_DAYS = 3 * 365;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        File dbFile = Files.createTempFile("text-index-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
+        System.setProperty("ticket.db.url", url);
+        PersistenceService.getInstance(); // creates the schema
+
+        Random random = new Random(11);
+        try (Connection conn = DriverManager.getConnection(url)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement p = conn.prepareStatement(
+                    "INSERT INTO events(event_id, uuid, name, date_time, location) VALUES(?,?,?,?,?)")) {
+                for (int id = 1; id <= count; id++) {
+                    long minute = random.nextInt(SPAN_DAYS * 24 * 60);
+                    p.setInt(1, id);
+                    p.setString(2, new UUID(random.nextLong(), random.nextLong()).toString());
+                    p.setString(3, pick(random, ARTISTS) + " " + pick(random, KINDS) + " " + id);
+                    p.setLong(4, (FIRST_DAY.toEpochDay() * 24 * 60 + minute) * 60_000_000L);
+                    p.setString(5, pick(random, CITIES) + " " + pick(random, VENUES));
+                    p.addBatch();
+                }
+                p.executeBatch();
+            }
+            conn.commit();
+        }
+
+        long start = System.nanoTime();
+        EventService events = new EventService();
+        System.out.printf("index load            %,d events in %.0f ms%n", count, (System.nanoTime() - start) / 1e6);
+
+        LocalDate from = FIRST_DAY.plusDays(200);
+        LocalDate to = from.plusDays(30);
+        String[] queries = {"coldplay", "istanbul arena", "cold", "mor ve", "tarkan izmir hall"};
+
+        for (int round = 0; round < 2; round++) { // first round warms up
+            System.out.println(round == 0 ? "-- warm-up" : "-- measured");
+            for (String q : queries) {
+                time("index  '" + q + "'", () -> events.searchText(q, null, null, 20));
+                time("index  '" + q + "' + 30 days", () -> events.searchText(q, from, to, 20));
+            }
+            for (String q : new String[] {"coldplay", "arena"}) {
+                time("SQL LIKE name '" + q + "'", () -> events.query(EventQuery.builder().name(q).build()));
+                time("SQL LIKE name '" + q + "' + 30 days",
+                        () -> events.query(EventQuery.builder().name(q).from(from).to(to).build()));
+            }
+        }
+    }
+
+    private static void time(String label, java.util.function.Supplier<List<Event>> search) {
+        int runs = 0;
+        int found = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            found = search.get().size();
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < 500_000_000L && runs < 200);
+        System.out.printf("%-42s %9.2f ms/query  (%d results)%n", label, elapsed / 1e6 / runs, found);
+    }
+
+    private static String pick(Random random, String[] options) {
+        return options[random.nextInt(options.length)];
+    }
+}
@@ -0,0 +1,132 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.service.EventQuery;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.PersistenceService;
+
+/**
+ * "Events in the next N days" over a large catalog: the stream filter over
+ * every loaded event that search used to run, against the date index
+ * (ids only, then full events), and the SQL date filter.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.EventTimeIndexBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="events days"]
+ * </pre>
+ */
+public class EventTimeIndexBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final int SPAN_DAYS = 3 * 365;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+
+        File dbFile = Files.createTempFile("time-index-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
+        System.setProperty("ticket.db.url", url);
+        PersistenceService.getInstance(); // creates the schema
+
+        // The same events in the database and, for the stream filter, in memory
+        List<Event> loaded = new ArrayList<>(count);
+        Random random = new Random(7);
+        try (Connection conn = DriverManager.getConnection(url)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement p = conn.prepareStatement(
+                    "INSERT INTO events(event_id, uuid, name, date_time, location) VALUES(?,?,?,?,?)")) {
+                for (int id = 1; id <= count; id++) {
+                    LocalDateTime when = FIRST_DAY.atStartOfDay()
+                            .plusMinutes(random.nextInt(SPAN_DAYS * 24 * 60));
+                    UUID uuid = new UUID(random.nextLong(), random.nextLong());
+                    p.setInt(1, id);
+                    p.setString(2, uuid.toString());
+                    p.setString(3, "Event");
+                    p.setLong(4, when.toEpochSecond(ZoneOffset.UTC) * 1_000_000);
+                    p.setString(5, "Arena");
+                    p.addBatch();
+                    loaded.add(Event.builder().eventId(id).uuid(uuid)
+                            .name("Event").dateTime(when).location("Arena").build());
+                }
+                p.executeBatch();
+            }
+            conn.commit();
+        }
+
+        long start = System.nanoTime();
+        EventService events = new EventService();
+        System.out.printf("index load            %,d events in %.0f ms%n", count, (System.nanoTime() - start) / 1e6);
+
+        LocalDate[] starts = new LocalDate[1_000];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = FIRST_DAY.plusDays(random.nextInt(SPAN_DAYS - days));
+        }
+
+        int queries = 50;
+        long found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            found += streamFilter(loaded, starts[i], starts[i].plusDays(days - 1)).size();
+        }
+        report("stream filter", System.nanoTime() - start, queries, found);
+
+        for (int round = 0; round < 2; round++) { // first round warms up
+            queries = 100_000;
+            found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                LocalDate from = starts[i % starts.length];
+                found += events.searchIds(from, from.plusDays(days - 1)).length;
+            }
+            report("index ids", System.nanoTime() - start, queries, found);
+        }
+
+        for (int round = 0; round < 2; round++) { // first round warms up
+            queries = 200;
+            found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                found += events.search(starts[i], starts[i].plusDays(days - 1)).size();
+            }
+            report("index + load events", System.nanoTime() - start, queries, found);
+
+            found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                found += events.query(EventQuery.builder()
+                        .from(starts[i]).to(starts[i].plusDays(days - 1)).build()).size();
+            }
+            report("SQL date filter", System.nanoTime() - start, queries, found);
+        }
+    }
+
+    /** The filter search ran before it was pushed down to SQL. */
+    private static List<Event> streamFilter(List<Event> all, LocalDate start, LocalDate end) {
+        return all.stream()
+                .filter(e -> {
+                    LocalDate date = e.getDateTime().toLocalDate();
+                    return !date.isBefore(start) && !date.isAfter(end);
+                })
+                .toList();
+    }
+
+    private static void report(String label, long nanos, int queries, long found) {
+        System.out.printf("%-21s %10.1f us/query  (%,d queries, %.0f events each)%n",
+                label, nanos / 1e3 / queries, queries, (double) found / queries);
+    }
+}
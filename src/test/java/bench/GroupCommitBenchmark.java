@@ -0,0 +1,84 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.PersistenceService;
+import com.myorg.ticket.service.ReservationService;
+
+/**
+ * Reservation throughput with many concurrent buyers: one commit per
+ * reservation (direct mode) versus batched group commit.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.GroupCommitBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="threads perThread batchSize lingerMs"]
+ * </pre>
+ */
+public class GroupCommitBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        long lingerMs = args.length > 3 ? Long.parseLong(args[3]) : 2;
+
+        File dbFile = Files.createTempFile("group-commit-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        System.setProperty("ticket.db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath());
+
+        PersistenceService db = PersistenceService.getInstance();
+        int total = threads * perThread;
+        int eventId = new EventService().createEvent(Event.builder()
+                .name("Flash sale")
+                .dateTime(LocalDateTime.now().plusDays(7))
+                .location("Arena")
+                .addCategory("Standard", 50.0, total * 2)
+                .build()).getEventId();
+
+        ReservationService direct = new ReservationService();
+        ReservationService grouped = ReservationService.builder()
+                .groupCommit(batchSize, Duration.ofMillis(lingerMs))
+                .build();
+
+        run("direct", direct, db, eventId, threads, perThread);
+        run("group commit (" + batchSize + ", " + lingerMs + " ms)", grouped, db, eventId, threads, perThread);
+        grouped.close();
+    }
+
+    private static void run(String label, ReservationService svc, PersistenceService db,
+                            int eventId, int threads, int perThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long commitsBefore = db.getPoolStats().getCommits();
+        long start = System.nanoTime();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    svc.makeReservation(eventId, "Standard", 1, null);
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+
+        long nanos = System.nanoTime() - start;
+        long commits = db.getPoolStats().getCommits() - commitsBefore;
+        pool.shutdown();
+
+        int total = threads * perThread;
+        System.out.printf("%-30s %6d reservations  %9.1f reservations/s  %6.1f reservations/commit%n",
+                label, total, total / (nanos / 1e9), (double) total / commits);
+    }
+}
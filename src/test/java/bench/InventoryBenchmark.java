@@ -0,0 +1,76 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.PersistenceService;
+import com.myorg.ticket.service.ReservationService;
+
+/**
+ * Cost of turning away a request for a sold-out category: the in-memory
+ * inventory counters versus the guarded decrement in SQLite.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.InventoryBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="requests"]
+ * </pre>
+ */
+public class InventoryBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        File dbFile = Files.createTempFile("inventory-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        System.setProperty("ticket.db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath());
+
+        PersistenceService db = PersistenceService.getInstance();
+        int eventId = new EventService().createEvent(Event.builder()
+                .name("Sold out")
+                .dateTime(LocalDateTime.now().plusDays(7))
+                .location("Arena")
+                .addCategory("VIP", 500.0, 10)
+                .build()).getEventId();
+
+        ReservationService svc = new ReservationService();
+        svc.makeReservation(eventId, "VIP", 10, null);
+
+        // Warm up both paths before timing
+        time(svc, db, eventId, requests / 10);
+
+        long[] nanos = time(svc, db, eventId, requests);
+        System.out.printf("%-22s %8d rejections  %10.3f us/request%n",
+                "in-memory counters", requests, nanos[0] / 1_000.0 / requests);
+        System.out.printf("%-22s %8d rejections  %10.3f us/request%n",
+                "SQLite guarded update", requests, nanos[1] / 1_000.0 / requests);
+    }
+
+    private static long[] time(ReservationService svc, PersistenceService db, int eventId, int requests)
+            throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            try {
+                svc.makeReservation(eventId, "VIP", 1, null);
+                throw new AssertionError("Sold-out category accepted a reservation");
+            } catch (IllegalStateException expected) {
+                // sold out
+            }
+        }
+        long counters = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        LocalDateTime reservedAt = LocalDateTime.now();
+        for (int i = 0; i < requests; i++) {
+            if (db.reserveTickets(UUID.randomUUID(), eventId, "VIP", 1, reservedAt)
+                    != PersistenceService.ReserveOutcome.SOLD_OUT) {
+                throw new AssertionError("Sold-out category accepted a reservation");
+            }
+        }
+        long sqlite = System.nanoTime() - start;
+        return new long[] { counters, sqlite };
+    }
+}
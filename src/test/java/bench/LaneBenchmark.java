@@ -0,0 +1,88 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.LaneStats;
+import com.myorg.ticket.service.PersistenceService;
+import com.myorg.ticket.service.ReservationService;
+
+/**
+ * Reservation throughput with many buyers spread over several events: every
+ * caller on its own thread (direct) versus per-event lanes.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.LaneBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="threads perThread events lanes"]
+ * </pre>
+ */
+public class LaneBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int events = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int laneCount = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        File dbFile = Files.createTempFile("lane-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        System.setProperty("ticket.db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath());
+
+        PersistenceService.getInstance();
+        EventService eventSvc = new EventService();
+        int[] eventIds = new int[events];
+        for (int i = 0; i < events; i++) {
+            eventIds[i] = eventSvc.createEvent(Event.builder()
+                    .name("Show " + i)
+                    .dateTime(LocalDateTime.now().plusDays(7))
+                    .location("Hall " + i)
+                    .addCategory("Standard", 50.0, threads * perThread * 2)
+                    .build()).getEventId();
+        }
+
+        ReservationService direct = new ReservationService();
+        ReservationService laned = ReservationService.builder().lanes(laneCount).build();
+
+        run("direct", direct, eventIds, threads, perThread);
+        run(laneCount + " lanes", laned, eventIds, threads, perThread);
+        for (LaneStats lane : laned.getLaneStats()) {
+            System.out.println("  " + lane);
+        }
+        laned.close();
+    }
+
+    private static void run(String label, ReservationService svc, int[] eventIds,
+                            int threads, int perThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perThread; i++) {
+                    int eventId = eventIds[random.nextInt(eventIds.length)];
+                    svc.makeReservation(eventId, "Standard", 1, null);
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+
+        long nanos = System.nanoTime() - start;
+        pool.shutdown();
+        int total = threads * perThread;
+        System.out.printf("%-12s %6d reservations  %9.1f reservations/s%n",
+                label, total, total / (nanos / 1e9));
+    }
+}
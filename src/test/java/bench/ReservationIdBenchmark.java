@@ -0,0 +1,124 @@
+package bench;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.myorg.ticket.model.ReservationIdGenerator;
+
+/**
+ * Random (v4) versus time-ordered (v7) reservation IDs: ID generation rate
+ * across threads, then insert throughput into the reservations primary key
+ * as the table grows. Each step reports the rate of its own inserts, so the
+ * slowdown of random keys on a large index shows up step by step.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.ReservationIdBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="rows steps threads"]
+ * </pre>
+ */
+public class ReservationIdBenchmark {
+
+    private static final int ROWS_PER_TRANSACTION = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        generate("random", ReservationIdGenerator.random(), threads);
+        generate("time-ordered", ReservationIdGenerator.timeOrdered(), threads);
+        System.out.println();
+
+        insert("random", ReservationIdGenerator.random(), rows, steps);
+        insert("time-ordered", ReservationIdGenerator.timeOrdered(), rows, steps);
+    }
+
+    private static void generate(String label, ReservationIdGenerator generator, int threads) throws Exception {
+        int perThread = 1_000_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        generator.next();
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-13s generate  %2d threads  %,12.0f ids/s%n",
+                    label, threads, threads * perThread / seconds);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void insert(String label, ReservationIdGenerator generator, int rows, int steps) throws Exception {
+        File file = Files.createTempFile("ids-" + label, ".db").toFile();
+        file.deleteOnExit();
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath())) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("PRAGMA journal_mode=WAL");
+                st.execute("PRAGMA synchronous=NORMAL");
+                st.execute("""
+                    CREATE TABLE reservations (
+                      id BLOB PRIMARY KEY,
+                      event_id INTEGER NOT NULL,
+                      category_id INTEGER NOT NULL,
+                      quantity INTEGER NOT NULL,
+                      reserved_at TEXT NOT NULL
+                    ) WITHOUT ROWID
+                    """);
+            }
+
+            conn.setAutoCommit(false);
+            int perStep = rows / steps;
+            try (PreparedStatement p = conn.prepareStatement(
+                    "INSERT INTO reservations VALUES(?,?,?,?,?)")) {
+                for (int step = 1; step <= steps; step++) {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < perStep; i++) {
+                        UUID id = generator.next();
+                        p.setBytes(1, ByteBuffer.allocate(16)
+                                .putLong(id.getMostSignificantBits())
+                                .putLong(id.getLeastSignificantBits())
+                                .array());
+                        p.setInt(2, i % 1_000);
+                        p.setInt(3, i % 4_000);
+                        p.setInt(4, 1);
+                        p.setString(5, "2025-06-01T20:00:00.000000000");
+                        p.executeUpdate();
+                        if (i % ROWS_PER_TRANSACTION == ROWS_PER_TRANSACTION - 1) {
+                            conn.commit();
+                        }
+                    }
+                    conn.commit();
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("%-13s insert    up to %,11d rows  %,10.0f rows/s%n",
+                            label, step * perStep, perStep / seconds);
+                }
+            }
+            conn.setAutoCommit(true);
+            try (Statement st = conn.createStatement()) {
+                st.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            }
+            System.out.printf("%-13s file size %.1f MB%n%n", label, file.length() / 1e6);
+        }
+    }
+}
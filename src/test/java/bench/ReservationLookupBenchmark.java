@@ -0,0 +1,73 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.model.Reservation;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.PersistenceService;
+import com.myorg.ticket.service.ReservationService;
+
+/**
+ * Looking up many reservations: one findById per ID versus one findByIds
+ * call, each on a cold cache, then findByIds again once the cache is warm.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.ReservationLookupBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="reservations"]
+ * </pre>
+ */
+public class ReservationLookupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+
+        File dbFile = Files.createTempFile("lookup-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        System.setProperty("ticket.db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath());
+
+        PersistenceService db = PersistenceService.getInstance();
+        int eventId = new EventService().createEvent(Event.builder()
+                .name("Lookup")
+                .dateTime(LocalDateTime.now().plusDays(7))
+                .location("Arena")
+                .addCategory("Standard", 50.0, count)
+                .build()).getEventId();
+
+        List<UUID> ids = new ArrayList<>();
+        db.inTransaction(() -> {
+            ReservationService writer = new ReservationService();
+            for (int i = 0; i < count; i++) {
+                ids.add(writer.makeReservation(eventId, "Standard", 1, null).getId());
+            }
+            return null;
+        });
+
+        ReservationService oneByOne = new ReservationService();
+        long start = System.nanoTime();
+        for (UUID id : ids) {
+            oneByOne.findById(id);
+        }
+        report("findById x " + count, System.nanoTime() - start, count);
+
+        ReservationService batched = new ReservationService();
+        start = System.nanoTime();
+        Map<UUID, Reservation> found = batched.findByIds(ids);
+        report("findByIds (cold)", System.nanoTime() - start, found.size());
+
+        start = System.nanoTime();
+        found = batched.findByIds(ids);
+        report("findByIds (warm)", System.nanoTime() - start, found.size());
+        System.out.println("cache: " + batched.getReservationCacheStats());
+    }
+
+    private static void report(String label, long nanos, int found) {
+        System.out.printf("%-20s %6d found  %9.2f ms%n", label, found, nanos / 1e6);
+    }
+}
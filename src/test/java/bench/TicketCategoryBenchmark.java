@@ -0,0 +1,110 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.myorg.ticket.model.TicketCategory;
+
+/**
+ * Reserve/restore throughput on one shared category under contention: the
+ * lock-free {@link TicketCategory} versus the same logic behind a monitor.
+ * Each operation reserves one ticket and restores it, so the stock never
+ * runs out and every call does real work.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.TicketCategoryBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="maxThreads opsPerThread rounds"]
+ * </pre>
+ */
+public class TicketCategoryBenchmark {
+
+    /** A counter either implementation can stand behind. */
+    private interface Counter {
+        boolean reserve(int quantity);
+
+        void restore(int quantity);
+    }
+
+    /** The previous check-then-act logic, made thread-safe with a lock. */
+    private static final class SynchronizedCategory implements Counter {
+        private int available;
+
+        SynchronizedCategory(int available) {
+            this.available = available;
+        }
+
+        @Override
+        public synchronized boolean reserve(int quantity) {
+            if (quantity > 0 && quantity <= available) {
+                available -= quantity;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized void restore(int quantity) {
+            if (quantity > 0) {
+                available += quantity;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.printf("%-8s %18s %18s%n", "threads", "CAS Mops/s", "synchronized Mops/s");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double cas = 0;
+            double locked = 0;
+            for (int r = 0; r < rounds; r++) { // the first rounds double as warm-up
+                TicketCategory category = new TicketCategory("Standard", 50.0, 1_000);
+                cas = Math.max(cas, run(threads, opsPerThread, new Counter() {
+                    @Override
+                    public boolean reserve(int quantity) {
+                        return category.reserve(quantity);
+                    }
+
+                    @Override
+                    public void restore(int quantity) {
+                        category.restore(quantity);
+                    }
+                }));
+                locked = Math.max(locked, run(threads, opsPerThread, new SynchronizedCategory(1_000)));
+            }
+            System.out.printf("%-8d %18.1f %18.1f%n", threads, cas, locked);
+        }
+    }
+
+    /** Best-effort throughput in millions of reserve+restore pairs per second. */
+    private static double run(int threads, int opsPerThread, Counter counter) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < opsPerThread; i++) {
+                    if (counter.reserve(1)) {
+                        counter.restore(1);
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        long nanos = System.nanoTime() - begin;
+        pool.shutdown();
+        return (double) threads * opsPerThread / nanos * 1_000;
+    }
+}
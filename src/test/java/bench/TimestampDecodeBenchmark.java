@@ -0,0 +1,79 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Reading timestamps from a result set: ISO-8601 text through
+ * {@code LocalDateTime.parse} versus epoch microseconds through
+ * {@code LocalDateTime.ofEpochSecond}, as the row mappers did before and
+ * after the epoch timestamp migration. Both columns hold the same instants.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.TimestampDecodeBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="rows rounds"]
+ * </pre>
+ */
+public class TimestampDecodeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        File file = Files.createTempFile("timestamps", ".db").toFile();
+        file.deleteOnExit();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath())) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE t (iso TEXT NOT NULL, micros INTEGER NOT NULL)");
+            }
+            conn.setAutoCommit(false);
+            LocalDateTime base = LocalDateTime.of(2025, 6, 1, 20, 0);
+            try (PreparedStatement p = conn.prepareStatement("INSERT INTO t VALUES(?,?)")) {
+                for (int i = 0; i < rows; i++) {
+                    LocalDateTime time = base.plusNanos(i * 7_919_000_000L + i * 1_000L);
+                    p.setString(1, time.toString());
+                    p.setLong(2, time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000);
+                    p.addBatch();
+                }
+                p.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+
+            for (int round = 1; round <= rounds; round++) {
+                long start = System.nanoTime();
+                long check = 0;
+                try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT iso FROM t")) {
+                    while (rs.next()) {
+                        check += LocalDateTime.parse(rs.getString(1)).getSecond();
+                    }
+                }
+                long text = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT micros FROM t")) {
+                    while (rs.next()) {
+                        long micros = rs.getLong(1);
+                        check -= LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC).getSecond();
+                    }
+                }
+                long epoch = System.nanoTime() - start;
+
+                if (check != 0) {
+                    throw new AssertionError("Decoded values differ");
+                }
+                System.out.printf("round %d  ISO text %7.1f ns/row   epoch micros %7.1f ns/row%n",
+                        round, (double) text / rows, (double) epoch / rows);
+            }
+            System.out.printf("file: %,d rows, %.1f MB with both columns%n", rows, file.length() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.model.Reservation;
+import com.myorg.ticket.model.User;
+import com.myorg.ticket.service.EventService;
+import com.myorg.ticket.service.PersistenceService;
+import com.myorg.ticket.service.ReservationService;
+import com.myorg.ticket.service.UserService;
+
+/**
+ * Compares commits (durable syncs) and latency per reservation for the old
+ * statement-by-statement write sequence against the unit-of-work path.
+ *
+ * Not a unit test; run it by hand against a throwaway database:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.UnitOfWorkBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args=100]
+ * </pre>
+ */
+public class UnitOfWorkBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int reservations = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+
+        File dbFile = Files.createTempFile("uow-bench", ".db").toFile();
+        dbFile.deleteOnExit();
+        System.setProperty("ticket.db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath());
+
+        PersistenceService db = PersistenceService.getInstance();
+        EventService events = new EventService();
+        ReservationService resSvc = new ReservationService();
+        User user = new UserService().signUp("bench-" + UUID.randomUUID());
+
+        Event event = events.createEvent(Event.builder()
+                .name("Benchmark")
+                .dateTime(LocalDateTime.now().plusDays(1))
+                .location("Nowhere")
+                .addCategory("Standard", 10.0, reservations * 2)
+                .build());
+        int eventId = event.getEventId();
+
+        // Old path: every statement autocommits on its own
+        long commitsBefore = db.getPoolStats().getCommits();
+        long start = System.nanoTime();
+        int available = reservations * 2;
+        for (int i = 0; i < reservations; i++) {
+            available--;
+            db.updateCategory(eventId, "Standard", available);
+            Reservation r = new Reservation(eventId, "Standard", 1);
+            db.saveReservation(r.getId(), eventId, "Standard", 1, r.getReservedAt());
+            user.addReservation(r.getId());
+            db.saveUserReservations(user.getId(), user.getPastReservations());
+        }
+        report("autocommit statements", reservations,
+                db.getPoolStats().getCommits() - commitsBefore, System.nanoTime() - start);
+
+        // New path: one unit of work per reservation
+        commitsBefore = db.getPoolStats().getCommits();
+        start = System.nanoTime();
+        for (int i = 0; i < reservations; i++) {
+            resSvc.makeReservation(eventId, "Standard", 1, user);
+        }
+        report("unit of work", reservations,
+                db.getPoolStats().getCommits() - commitsBefore, System.nanoTime() - start);
+    }
+
+    private static void report(String label, int reservations, long commits, long nanos) {
+        System.out.printf("%-22s %6d reservations  %6.2f commits/reservation  %8.3f ms/reservation%n",
+                label, reservations, (double) commits / reservations,
+                nanos / 1_000_000.0 / reservations);
+    }
+}
@@ -0,0 +1,150 @@
+package bench;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Reservation keys stored as 36-character TEXT versus 16-byte BLOBs: file
+ * size, size of the table and its indexes, and random primary-key lookups.
+ * Both databases get the same rows, laid out like the reservations table
+ * before and after the binary key migration.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=bench.UuidStorageBenchmark \
+ *     -Dexec.classpathScope=test [-Dexec.args="rows lookups"]
+ * </pre>
+ */
+public class UuidStorageBenchmark {
+
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        run("TEXT", false, rows, lookups);
+        run("BLOB", true, rows, lookups);
+    }
+
+    private static void run(String label, boolean binary, int rows, int lookups) throws Exception {
+        File file = Files.createTempFile("uuid-" + label.toLowerCase(), ".db").toFile();
+        file.deleteOnExit();
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath())) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("PRAGMA journal_mode=OFF");
+                st.execute("PRAGMA synchronous=OFF");
+                st.execute("CREATE TABLE reservations ("
+                        + "id " + (binary ? "BLOB" : "TEXT") + " PRIMARY KEY, "
+                        + "event_id INTEGER NOT NULL, category_id INTEGER NOT NULL, "
+                        + "quantity INTEGER NOT NULL, reserved_at TEXT NOT NULL)"
+                        + (binary ? " WITHOUT ROWID" : ""));
+                st.execute("CREATE INDEX idx_reservations_event ON reservations(event_id)");
+            }
+
+            long start = System.nanoTime();
+            conn.setAutoCommit(false);
+            try (PreparedStatement p = conn.prepareStatement(
+                    "INSERT INTO reservations VALUES(?,?,?,?,?)")) {
+                Random ids = new Random(SEED);
+                for (int i = 0; i < rows; i++) {
+                    bindId(p, 1, next(ids), binary);
+                    p.setInt(2, i % 1_000);
+                    p.setInt(3, i % 4_000);
+                    p.setInt(4, 1 + i % 4);
+                    p.setString(5, "2025-06-01T20:00:00.000000000");
+                    p.addBatch();
+                    if (i % 10_000 == 9_999) {
+                        p.executeBatch();
+                    }
+                }
+                p.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+            double loadSeconds = (System.nanoTime() - start) / 1e9;
+
+            // Ids of existing rows, drawn uniformly from the insert sequence
+            UUID[] probes = new UUID[lookups];
+            Random pick = new Random(SEED + 1);
+            int[] positions = pick.ints(lookups, 0, rows).sorted().toArray();
+            Random ids = new Random(SEED);
+            for (int i = 0, row = 0; i < lookups; i++) {
+                UUID id = null;
+                for (; row <= positions[i]; row++) {
+                    id = next(ids);
+                }
+                probes[i] = id != null ? id : probes[i - 1];
+            }
+            shuffle(probes, pick);
+
+            start = System.nanoTime();
+            int found = 0;
+            try (PreparedStatement p = conn.prepareStatement(
+                    "SELECT quantity FROM reservations WHERE id = ?")) {
+                for (UUID id : probes) {
+                    bindId(p, 1, id, binary);
+                    try (ResultSet rs = p.executeQuery()) {
+                        if (rs.next()) {
+                            found++;
+                        }
+                    }
+                }
+            }
+            double lookupMicros = (System.nanoTime() - start) / 1e3 / lookups;
+
+            System.out.printf("%s keys, %,d rows (loaded in %.1f s)%n", label, rows, loadSeconds);
+            System.out.printf("  %-32s %10.1f MB%n", "file size", file.length() / 1e6);
+            printObjectSizes(conn);
+            System.out.printf("  %-32s %10.2f us/op (%d of %d found)%n%n", "pk lookup",
+                    lookupMicros, found, lookups);
+        }
+    }
+
+    private static void printObjectSizes(Connection conn) {
+        String sql = "SELECT name, SUM(pgsize) FROM dbstat GROUP BY name ORDER BY name";
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                System.out.printf("  %-32s %10.1f MB%n", rs.getString(1), rs.getLong(2) / 1e6);
+            }
+        } catch (SQLException e) {
+            System.out.println("  (per-index sizes need a driver built with the dbstat table)");
+        }
+    }
+
+    private static void bindId(PreparedStatement p, int index, UUID id, boolean binary) throws SQLException {
+        if (binary) {
+            p.setBytes(index, ByteBuffer.allocate(16)
+                    .putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits())
+                    .array());
+        } else {
+            p.setString(index, id.toString());
+        }
+    }
+
+    /** Version-4 shaped UUID from a seeded generator, so both runs insert the same keys. */
+    private static UUID next(Random random) {
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static void shuffle(UUID[] a, Random random) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            UUID t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.myorg.ticket.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.model.User;
+
+public class AsyncTicketServiceTest {
+
+    private EventService events;
+    private UserService users;
+    private ExecutorService executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger mostRunning = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        events = mock(EventService.class);
+        users = mock(UserService.class);
+        // Stubs that hold their thread until released, tracking how many run at once
+        when(users.login(anyString())).thenAnswer(inv -> {
+            block();
+            return Optional.of(new User(inv.<String>getArgument(0)));
+        });
+        when(users.signUp(anyString())).thenAnswer(inv -> {
+            block();
+            return new User(inv.<String>getArgument(0));
+        });
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private void block() throws InterruptedException {
+        mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    private AsyncTicketService async(int maxInFlight, Duration timeout) {
+        return AsyncTicketService.builder()
+                .events(events)
+                .reservations(mock(ReservationService.class))
+                .users(users)
+                .executor(executor)
+                .maxInFlight(maxInFlight)
+                .timeout(timeout)
+                .build();
+    }
+
+    private void awaitRunning(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (running.get() < count) {
+            assertTrue(System.nanoTime() < deadline, "Calls did not start");
+            Thread.sleep(5);
+        }
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    void testInFlightBoundQueuesTheRest() throws Exception {
+        AsyncTicketService async = async(2, Duration.ofSeconds(5));
+        List<CompletableFuture<Optional<User>>> logins = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            logins.add(async.login("fan-" + i));
+        }
+
+        awaitRunning(2);
+        Thread.sleep(50); // a third call would have started by now
+        assertEquals(2, running.get());
+        assertEquals(3, async.getQueuedCalls());
+
+        release.countDown();
+        for (int i = 0; i < logins.size(); i++) {
+            assertEquals("fan-" + i, logins.get(i).get(5, TimeUnit.SECONDS).orElseThrow().getUsername());
+        }
+        assertEquals(2, mostRunning.get());
+        assertEquals(0, async.getQueuedCalls());
+    }
+
+    @Test
+    void testQueuedLookupTimesOutWithoutRunning() throws Exception {
+        AsyncTicketService async = async(1, Duration.ofMillis(200));
+        CompletableFuture<User> signUp = async.signUp("first");
+        awaitRunning(1);
+
+        CompletableFuture<Optional<User>> login = async.login("queued");
+
+        assertInstanceOf(TimeoutException.class, failure(login));
+        release.countDown();
+        assertEquals("first", signUp.get(5, TimeUnit.SECONDS).getUsername());
+        verify(users, never()).login(anyString());
+    }
+
+    @Test
+    void testStartedLookupTimesOut() throws Exception {
+        AsyncTicketService async = async(1, Duration.ofMillis(100));
+        CompletableFuture<Optional<User>> login = async.login("slow");
+        awaitRunning(1);
+
+        assertInstanceOf(TimeoutException.class, failure(login));
+        assertEquals(1, running.get()); // the statement itself keeps going
+    }
+
+    @Test
+    void testStartedChangeRunsToCompletion() throws Exception {
+        AsyncTicketService async = async(1, Duration.ofMillis(100));
+        CompletableFuture<User> signUp = async.signUp("patient");
+        awaitRunning(1);
+
+        Thread.sleep(300); // well past the timeout
+        assertFalse(signUp.isDone());
+        release.countDown();
+
+        assertEquals("patient", signUp.get(5, TimeUnit.SECONDS).getUsername());
+    }
+
+    @Test
+    void testFindEventsChunksLargeRequests() throws Exception {
+        List<List<Integer>> calls = new ArrayList<>();
+        when(events.findByIds(any())).thenAnswer(inv -> {
+            Collection<Integer> ids = inv.getArgument(0);
+            synchronized (calls) {
+                calls.add(List.copyOf(ids));
+            }
+            Map<Integer, Event> found = new LinkedHashMap<>();
+            for (int id : ids) {
+                if (id % 2 == 0) { // odd ids are unknown
+                    found.put(id, Event.builder()
+                            .name("Event " + id)
+                            .dateTime(LocalDateTime.now().plusDays(7))
+                            .location("Arena")
+                            .build());
+                }
+            }
+            return found;
+        });
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1_200; id > 0; id--) {
+            ids.add(id);
+        }
+        ids.addAll(List.of(1_200, 2, 4)); // duplicates are looked up once
+
+        Map<Integer, Event> found = async(4, Duration.ofSeconds(5)).findEvents(ids).get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, calls.size());
+        assertTrue(calls.stream().allMatch(chunk -> chunk.size() <= 500));
+        assertEquals(1_200, calls.stream().mapToInt(List::size).sum());
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 1_200; id > 0; id -= 2) {
+            expected.add(id);
+        }
+        assertEquals(expected, List.copyOf(found.keySet()));
+    }
+}
@@ -0,0 +1,137 @@
+package com.myorg.ticket.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EventTextIndexTest {
+
+    private PersistenceService db;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = mock(PersistenceService.class);
+        doAnswer(inv -> {
+            int afterId = inv.getArgument(0);
+            PersistenceService.EventTextVisitor visitor = inv.getArgument(1);
+            for (Object[] r : rows) {
+                if ((int) r[0] > afterId) {
+                    visitor.visit((int) r[0], (long) r[1], (String) r[2], (String) r[3]);
+                }
+            }
+            return null;
+        }).when(db).loadEventTexts(anyInt(), any());
+    }
+
+    private void event(int id, String date, String name, String location) {
+        rows.add(new Object[] {id, TimestampCodec.toMicros(LocalDateTime.parse(date)), name, location});
+    }
+
+    private int[] search(EventTextIndex index, String text) {
+        return index.search(text, Long.MIN_VALUE, Long.MAX_VALUE, 10);
+    }
+
+    @Test
+    void testTokenize() {
+        assertEquals(List.of("coldplay", "live", "in", "istanbul"),
+                List.copyOf(EventTextIndex.tokenize("Coldplay — LIVE in İstanbul!")));
+        assertEquals(List.of("cafe", "muller", "2025"), List.copyOf(EventTextIndex.tokenize("Café Müller, 2025")));
+        assertEquals(Set.of("rock"), EventTextIndex.tokenize("rock ROCK Rock"));
+        assertTrue(EventTextIndex.tokenize(null).isEmpty());
+        assertTrue(EventTextIndex.tokenize(" ... ").isEmpty());
+    }
+
+    @Test
+    void testPrefixMatchesLongerWords() {
+        event(1, "2025-06-01T20:00", "Coldplay", "Wembley");
+        event(2, "2025-06-02T20:00", "Cold War Kids", "Camden");
+        event(3, "2025-06-03T20:00", "Blur", "Hyde Park");
+        EventTextIndex index = new EventTextIndex(db);
+
+        assertArrayEquals(new int[] {2, 1}, search(index, "cold"));
+        assertArrayEquals(new int[] {1}, search(index, "COLDPL"));
+        assertArrayEquals(new int[0], search(index, "coldplays"));
+        assertArrayEquals(new int[0], search(index, ""));
+    }
+
+    @Test
+    void testWholeWordAndNameRankFirst() {
+        event(1, "2025-06-01T20:00", "Rockets", "Arena");     // name prefix
+        event(2, "2025-06-02T20:00", "Rock Night", "Arena");  // name word
+        event(3, "2025-06-03T20:00", "Quiz", "Rock Cafe");    // location word
+        event(4, "2025-06-04T20:00", "Quiz", "Rockford");     // location prefix
+        EventTextIndex index = new EventTextIndex(db);
+
+        assertArrayEquals(new int[] {2, 1, 3, 4}, search(index, "rock"));
+    }
+
+    @Test
+    void testEveryQueryWordMustMatch() {
+        event(1, "2025-06-01T20:00", "Jazz Brunch", "Berlin");
+        event(2, "2025-06-02T20:00", "Jazz Night", "Hamburg");
+        event(3, "2025-06-03T20:00", "Techno", "Berlin");
+        event(4, "2025-06-04T20:00", "Berlin Jazz Festival", "Tempelhof");
+        EventTextIndex index = new EventTextIndex(db);
+
+        // 4 has both words in its name, 1 only one of them
+        assertArrayEquals(new int[] {4, 1}, search(index, "jazz berlin"));
+        assertArrayEquals(new int[] {4, 1}, search(index, "berlin jazz"));
+        assertArrayEquals(new int[0], search(index, "techno hamburg"));
+    }
+
+    @Test
+    void testDateRange() {
+        event(1, "2025-05-31T23:59", "Opera", "Vienna");
+        event(2, "2025-06-01T00:00", "Opera", "Vienna");
+        event(3, "2025-06-30T23:59", "Opera", "Vienna");
+        event(4, "2025-07-01T00:00", "Opera", "Vienna");
+        EventTextIndex index = new EventTextIndex(db);
+
+        long from = TimestampCodec.toMicros(LocalDateTime.parse("2025-06-01T00:00"));
+        long to = TimestampCodec.toMicros(LocalDateTime.parse("2025-07-01T00:00"));
+        assertArrayEquals(new int[] {2, 3}, index.search("opera", from, to, 10));
+        assertArrayEquals(new int[] {2, 3, 4}, index.search("opera", from, Long.MAX_VALUE, 10));
+        assertArrayEquals(new int[] {1}, index.search("opera", Long.MIN_VALUE, from, 10));
+    }
+
+    @Test
+    void testLimitKeepsBestByScoreThenDate() {
+        event(1, "2025-06-05T20:00", "Ballet", "Paris");
+        event(2, "2025-06-01T20:00", "Ballet", "Paris");
+        event(3, "2025-06-03T20:00", "Balletto", "Milan");
+        event(4, "2025-06-01T20:00", "Ballet", "Lyon");
+        event(5, "2025-06-02T20:00", "Ballet", "Nice");
+        EventTextIndex index = new EventTextIndex(db);
+
+        // Same score: earliest first, then lowest id; the prefix match comes last
+        assertArrayEquals(new int[] {2, 4, 5, 1, 3}, index.search("ballet", Long.MIN_VALUE, Long.MAX_VALUE, 10));
+        assertArrayEquals(new int[] {2, 4, 5}, index.search("ballet", Long.MIN_VALUE, Long.MAX_VALUE, 3));
+        assertArrayEquals(new int[0], index.search("ballet", Long.MIN_VALUE, Long.MAX_VALUE, 0));
+    }
+
+    @Test
+    void testCatchUpAddsNewEventsOnly() throws SQLException {
+        event(1, "2025-06-01T20:00", "Circus", "Tent");
+        EventTextIndex index = new EventTextIndex(db);
+        event(2, "2025-06-02T20:00", "Circus", "Tent");
+
+        index.catchUpIfStale(); // within the refresh interval: no query
+        assertArrayEquals(new int[] {1}, search(index, "circus"));
+        verify(db, times(1)).loadEventTexts(anyInt(), any());
+
+        index.catchUp();
+        assertArrayEquals(new int[] {1, 2}, search(index, "circus"));
+        verify(db).loadEventTexts(eq(1), any());
+    }
+}
@@ -0,0 +1,146 @@
+package com.myorg.ticket.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GroupCommitWriterTest {
+
+    private PersistenceService db;
+    private GroupCommitWriter writer;
+    private final AtomicInteger transactions = new AtomicInteger();
+    /** Which commit (counting from 1) runs its work and then fails, if any. */
+    private volatile int failingCommit;
+    private final SQLException diskFull = new SQLException("database or disk is full");
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = mock(PersistenceService.class);
+        when(db.inTransaction(any())).thenAnswer(inv -> {
+            int n = transactions.incrementAndGet();
+            Object result = inv.<PersistenceService.TransactionCallback<?>>getArgument(0).execute();
+            if (n == failingCommit) {
+                throw diskFull;
+            }
+            return result;
+        });
+        when(db.inSavepoint(any())).thenAnswer(inv ->
+                inv.<PersistenceService.TransactionCallback<?>>getArgument(0).execute());
+        writer = new GroupCommitWriter(db, 10, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        writer.close();
+    }
+
+    /** Work that holds the writer thread until {@link #release} opens. */
+    private Integer blocker() {
+        started.countDown();
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    /** Submits a blocker, then {@code count} requests that queue up behind it. */
+    private List<CompletableFuture<Integer>> queueBehindBlocker(int count) throws InterruptedException {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        futures.add(writer.submit(this::blocker));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= count; i++) {
+            int n = i;
+            futures.add(writer.submit(() -> n));
+        }
+        return futures;
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    void testQueuedRequestsShareOneCommit() throws Exception {
+        List<CompletableFuture<Integer>> futures = queueBehindBlocker(5);
+        release.countDown();
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        // The blocker alone, then everything that queued behind it
+        assertEquals(2, transactions.get());
+        verify(db, times(6)).inSavepoint(any());
+    }
+
+    @Test
+    void testBatchSizeIsCapped() throws Exception {
+        List<CompletableFuture<Integer>> futures = queueBehindBlocker(25);
+        release.countDown();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(4, transactions.get()); // 1 + 10 + 10 + 5
+    }
+
+    @Test
+    void testFailedRequestDoesNotFailItsBatch() throws Exception {
+        List<CompletableFuture<Integer>> futures = queueBehindBlocker(2);
+        CompletableFuture<Integer> soldOut = writer.submit(() -> {
+            throw new IllegalStateException("Not enough tickets available");
+        });
+        release.countDown();
+
+        assertInstanceOf(IllegalStateException.class, failure(soldOut));
+        assertEquals(1, futures.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals(2, futures.get(2).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailedCommitFailsEveryCallerInBatch() throws Exception {
+        List<CompletableFuture<Integer>> futures = queueBehindBlocker(3);
+        failingCommit = 2; // the batch queued behind the blocker
+        release.countDown();
+
+        assertEquals(0, futures.get(0).get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<Integer> f : futures.subList(1, futures.size())) {
+            assertSame(diskFull, failure(f));
+        }
+    }
+
+    @Test
+    void testCloseCommitsQueuedWork() throws Exception {
+        List<CompletableFuture<Integer>> futures = queueBehindBlocker(3);
+        Thread closer = new Thread(writer::close);
+        closer.start();
+        closer.join(100);
+        assertTrue(closer.isAlive(), "close() should wait for the queued work");
+
+        release.countDown();
+        closer.join(5_000);
+
+        assertFalse(closer.isAlive());
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).getNow(-1));
+        }
+        assertInstanceOf(ServiceClosedException.class, failure(writer.submit(() -> 42)));
+    }
+}
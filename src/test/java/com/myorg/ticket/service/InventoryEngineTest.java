@@ -0,0 +1,95 @@
+package com.myorg.ticket.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.myorg.ticket.model.Event;
+
+public class InventoryEngineTest {
+
+    private static final int STOCK = 10;
+
+    @BeforeAll
+    static void useTestDatabase() {
+        TestDatabase.use();
+    }
+
+    private static int createEvent() {
+        return new EventService().createEvent(Event.builder()
+                .name("Reload race")
+                .dateTime(LocalDateTime.now().plusDays(7))
+                .location("Arena")
+                .addCategory("Standard", 50.0, STOCK)
+                .build()).getEventId();
+    }
+
+    @Test
+    void testReloadDuringCommitCountsItOnce() throws Exception {
+        PersistenceService db = PersistenceService.getInstance();
+        InventoryEngine inventory = InventoryEngine.getInstance();
+        ReservationService reservations = new ReservationService();
+        int eventId = createEvent();
+
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            try {
+                db.inTransaction(() -> {
+                    // Registered first, so it holds the commit before the counters are adjusted
+                    db.afterCommit(() -> {
+                        committed.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                    return reservations.makeReservation(eventId, "Standard", 1, null);
+                });
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        writer.start();
+        assertTrue(committed.await(5, TimeUnit.SECONDS));
+
+        // The reservation is committed but its counter adjustment has not run
+        Thread reloader = new Thread(() -> {
+            try {
+                inventory.refresh(eventId);
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        });
+        reloader.start();
+        reloader.join(300);
+        release.countDown();
+        writer.join(5_000);
+        reloader.join(5_000);
+
+        assertEquals(STOCK - 1, inventory.available(eventId, "Standard"));
+        assertEquals(STOCK - 1, (int) db.loadAvailability(eventId).get("Standard"));
+    }
+
+    @Test
+    void testRefreshPicksUpOutsideChange() throws Exception {
+        PersistenceService db = PersistenceService.getInstance();
+        InventoryEngine inventory = InventoryEngine.getInstance();
+        int eventId = createEvent();
+        inventory.refresh(eventId);
+        assertEquals(STOCK, inventory.available(eventId, "Standard"));
+
+        // As another process would: straight to the database, no after-commit action
+        db.reserveTickets(UUID.randomUUID(), eventId, "Standard", 3, LocalDateTime.now());
+        inventory.refresh(eventId);
+
+        assertEquals(STOCK - 3, inventory.available(eventId, "Standard"));
+    }
+}
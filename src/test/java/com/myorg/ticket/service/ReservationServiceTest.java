@@ -0,0 +1,146 @@
+package com.myorg.ticket.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.myorg.ticket.model.Event;
+import com.myorg.ticket.model.User;
+
+public class ReservationServiceTest {
+
+    private static final int STOCK = 20;
+    private static final int THREADS = 8;
+
+    @BeforeAll
+    static void useTestDatabase() {
+        TestDatabase.use();
+    }
+
+    private static int createEvent(String name) {
+        return new EventService().createEvent(Event.builder()
+                .name(name)
+                .dateTime(LocalDateTime.now().plusDays(7))
+                .location("Arena")
+                .addCategory("Standard", 50.0, STOCK)
+                .addCategory("VIP", 200.0, 2)
+                .build()).getEventId();
+    }
+
+    /** Reservation rows of an event, read on a connection of its own. */
+    private static int countReservations(int eventId) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(System.getProperty("ticket.db.url"));
+             PreparedStatement p = conn.prepareStatement("SELECT COUNT(*) FROM reservations WHERE event_id = ?")) {
+            p.setInt(1, eventId);
+            try (ResultSet rs = p.executeQuery()) {
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /** Runs {@code attempts} calls of {@code task} on {@link #THREADS} threads at once; returns the successes. */
+    private static int race(int attempts, Callable<Boolean> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            int successes = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    successes++;
+                }
+            }
+            return successes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentReservationsDoNotOversell() throws Exception {
+        PersistenceService db = PersistenceService.getInstance();
+        ReservationService reservations = new ReservationService();
+        int eventId = createEvent("On-sale");
+
+        int successes = race(STOCK + 1, () -> {
+            try {
+                reservations.makeReservation(eventId, "Standard", 1, null);
+                return true;
+            } catch (IllegalStateException soldOut) {
+                return false;
+            }
+        });
+
+        assertEquals(STOCK, successes);
+        assertEquals(0, (int) db.loadAvailability(eventId).get("Standard"));
+        assertEquals(0, InventoryEngine.getInstance().available(eventId, "Standard"));
+    }
+
+    @Test
+    void testGuardedDecrementDoesNotOversell() throws Exception {
+        // Straight to the database, as a second process would, with no counters in front
+        PersistenceService db = PersistenceService.getInstance();
+        int eventId = createEvent("Guarded");
+
+        int successes = race(STOCK + 1, () -> db.reserveTickets(UUID.randomUUID(), eventId, "Standard", 1,
+                LocalDateTime.now()) != PersistenceService.ReserveOutcome.SOLD_OUT);
+
+        assertEquals(STOCK, successes);
+        assertEquals(0, (int) db.loadAvailability(eventId).get("Standard"));
+    }
+
+    @Test
+    void testBulkReservationRollsBackWhenLaterLineFails() throws Exception {
+        PersistenceService db = PersistenceService.getInstance();
+        InventoryEngine inventory = InventoryEngine.getInstance();
+        ReservationService reservations = new ReservationService();
+        int eventId = createEvent("Group booking");
+        User user = new UserService().signUp("group-" + UUID.randomUUID());
+        inventory.refresh(eventId);
+
+        // Another process takes the VIP seats: the counters still admit them, the database won't
+        db.reserveTickets(UUID.randomUUID(), eventId, "VIP", 2, LocalDateTime.now());
+        assertEquals(2, inventory.available(eventId, "VIP"));
+        int rowsBefore = countReservations(eventId);
+        int cachedBefore = reservations.getReservationCacheStats().getSize();
+
+        List<ReservationLine> lines = List.of(
+                new ReservationLine(eventId, "Standard", 3),
+                new ReservationLine(eventId, "VIP", 2));
+        assertThrows(IllegalStateException.class, () -> reservations.makeReservations(lines, user));
+
+        assertEquals(rowsBefore, countReservations(eventId));
+        assertEquals(STOCK, (int) db.loadAvailability(eventId).get("Standard"));
+        assertEquals(STOCK, inventory.available(eventId, "Standard"));
+        assertEquals(0, inventory.available(eventId, "VIP"), "The stale counter should be reloaded");
+        assertTrue(reservations.listByUser(user).isEmpty());
+        assertTrue(db.loadReservationIdsForUser(user.getId()).isEmpty());
+        assertTrue(user.getPastReservations().isEmpty());
+        assertTrue(UserCache.getInstance().get(user.getUsername()).getPastReservations().isEmpty());
+        assertEquals(cachedBefore, reservations.getReservationCacheStats().getSize());
+    }
+}
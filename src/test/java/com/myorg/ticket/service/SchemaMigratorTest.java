@@ -0,0 +1,315 @@
+package com.myorg.ticket.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Migrates a database in the shape written before schema versioning
+ * (text ids, text timestamps, categories keyed by name) to the latest
+ * version and checks that no row or link is lost on the way.
+ */
+public class SchemaMigratorTest {
+
+    private static final UUID ALICE = UUID.fromString("0b7e2f3c-6a41-4c2e-9d0e-2f1c7a9b5e11");
+    private static final UUID BOB = UUID.fromString("f1e2d3c4-b5a6-4978-8695-a4b3c2d1e0ff");
+    private static final UUID VIP = UUID.fromString("11111111-2222-4333-8444-555555555555");
+    private static final UUID STANDARD = UUID.fromString("aaaaaaaa-bbbb-4ccc-8ddd-eeeeeeeeeeee");
+    private static final UUID FLOOR = UUID.fromString("01234567-89ab-4cde-8f01-23456789abcd");
+    private static final UUID ORPHAN = UUID.fromString("fedcba98-7654-4321-8fed-cba987654321");
+
+    @TempDir
+    Path dir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("baseline.db"));
+        try (Statement st = conn.createStatement()) {
+            st.execute("""
+                CREATE TABLE events (
+                  event_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                  uuid TEXT NOT NULL,
+                  name TEXT NOT NULL,
+                  date_time TEXT NOT NULL,
+                  location TEXT NOT NULL
+                )
+            """);
+            st.execute("""
+                CREATE TABLE ticket_categories (
+                  event_id INTEGER NOT NULL,
+                  category_name TEXT NOT NULL,
+                  price REAL NOT NULL,
+                  available INTEGER NOT NULL,
+                  PRIMARY KEY (event_id, category_name),
+                  FOREIGN KEY(event_id) REFERENCES events(event_id)
+                )
+            """);
+            st.execute("""
+                CREATE TABLE reservations (
+                  id TEXT PRIMARY KEY,
+                  event_id INTEGER NOT NULL,
+                  category_name TEXT NOT NULL,
+                  quantity INTEGER NOT NULL,
+                  reserved_at TEXT NOT NULL,
+                  FOREIGN KEY(event_id, category_name) REFERENCES ticket_categories(event_id, category_name)
+                )
+            """);
+            st.execute("""
+                CREATE TABLE users (
+                  id TEXT PRIMARY KEY,
+                  username TEXT NOT NULL UNIQUE
+                )
+            """);
+            st.execute("""
+                CREATE TABLE user_reservations (
+                  user_id TEXT NOT NULL,
+                  reservation_id TEXT NOT NULL,
+                  PRIMARY KEY (user_id, reservation_id),
+                  FOREIGN KEY(user_id) REFERENCES users(id),
+                  FOREIGN KEY(reservation_id) REFERENCES reservations(id)
+                )
+            """);
+
+            // Events 2 and 5 were deleted: a gap in the ids, and the sequence ahead of them
+            st.execute("INSERT INTO events VALUES(1, 'e-1', 'Opera', '2025-12-31T12:15', 'Hall A')");
+            st.execute("INSERT INTO events VALUES(2, 'e-2', 'Gone', '2025-01-01T10:00', 'Nowhere')");
+            st.execute("INSERT INTO events VALUES(3, 'e-3', 'Concert', '2025-06-01T20:00:30', 'Arena')");
+            st.execute("INSERT INTO events VALUES(4, 'e-4', 'Talk', '2025-06-02T09:45:10.5', 'Room 1')");
+            st.execute("INSERT INTO events VALUES(5, 'e-5', 'Cancelled', '2025-07-01T19:00', 'Arena')");
+            st.execute("DELETE FROM events WHERE event_id IN (2, 5)");
+
+            st.execute("INSERT INTO ticket_categories VALUES(1, 'VIP', 150.0, 8)");
+            st.execute("INSERT INTO ticket_categories VALUES(1, 'Standard', 50.0, 99)");
+            st.execute("INSERT INTO ticket_categories VALUES(3, 'Floor', 30.0, 0)");
+
+            st.execute("INSERT INTO users VALUES('" + ALICE + "', 'alice')");
+            st.execute("INSERT INTO users VALUES('" + BOB + "', 'bob')");
+        }
+        reservation(VIP, 1, "VIP", 2, "2025-05-27T11:21:00.788827");
+        reservation(STANDARD, 1, "Standard", 1, "2025-05-27T11:22:07.123456789");
+        reservation(FLOOR, 3, "Floor", 4, "2025-05-28T08:00");
+        // Its category was removed without cancelling it
+        reservation(ORPHAN, 3, "Balcony", 1, "2025-05-28T08:00:01.05");
+        link(ALICE, VIP);
+        link(ALICE, FLOOR);
+        link(BOB, STANDARD);
+        link(BOB, ORPHAN);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void testMigratesToLatestVersion() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+
+        assertEquals(SchemaMigrator.latestVersion(), queryInt("SELECT MAX(version) FROM schema_version"));
+        assertEquals(SchemaMigrator.latestVersion(), queryInt("SELECT COUNT(*) FROM schema_version"));
+    }
+
+    @Test
+    void testIsoTimestampsBecomeMicros() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+
+        assertEquals(micros("2025-12-31T12:15"), eventTime(1), "no seconds");
+        assertEquals(micros("2025-06-01T20:00:30"), eventTime(3), "whole seconds");
+        assertEquals(micros("2025-06-02T09:45:10.5"), eventTime(4), "short fraction");
+
+        assertEquals(micros("2025-05-27T11:21:00.788827"), reservedAt(VIP), "six fraction digits");
+        assertEquals(micros("2025-05-27T11:22:07.123456789"), reservedAt(STANDARD), "digits beyond six are dropped");
+        assertEquals(micros("2025-05-28T08:00"), reservedAt(FLOOR), "no seconds");
+        assertEquals(micros("2025-05-28T08:00:01.05"), reservedAt(ORPHAN), "leading zero in fraction");
+    }
+
+    @Test
+    void testEventIdsAndSequenceKept() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+
+        assertEquals(3, queryInt("SELECT COUNT(*) FROM events"));
+        assertEquals("Opera", queryString("SELECT name FROM events WHERE event_id = 1"));
+        assertEquals("e-3", queryString("SELECT uuid FROM events WHERE event_id = 3"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM events WHERE event_id = 2"));
+
+        try (Statement st = conn.createStatement()) {
+            st.execute("INSERT INTO events(uuid, name, date_time, location) VALUES('e-6', 'New', 0, 'Hall B')");
+        }
+        assertEquals(6, queryInt("SELECT event_id FROM events WHERE uuid = 'e-6'"), "ids are not reused");
+    }
+
+    @Test
+    void testReservationsAndCategoriesKept() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+
+        assertEquals(4, queryInt("SELECT COUNT(*) FROM reservations"));
+        try (PreparedStatement p = conn.prepareStatement("""
+                SELECT r.event_id, c.event_id, c.category_name, r.quantity
+                FROM reservations r JOIN ticket_categories c ON c.category_id = r.category_id
+                WHERE r.id = ?
+                """)) {
+            assertReservation(p, VIP, 1, "VIP", 2);
+            assertReservation(p, STANDARD, 1, "Standard", 1);
+            assertReservation(p, FLOOR, 3, "Floor", 4);
+            assertReservation(p, ORPHAN, 3, "Balcony", 1);
+        }
+
+        assertEquals(8, queryInt("SELECT available FROM ticket_categories WHERE event_id = 1 AND category_name = 'VIP'"));
+        assertEquals(99, queryInt("SELECT available FROM ticket_categories WHERE event_id = 1 AND category_name = 'Standard'"));
+        assertEquals(0, queryInt("SELECT available FROM ticket_categories WHERE event_id = 3 AND category_name = 'Balcony'"),
+                "a missing category comes back empty");
+    }
+
+    @Test
+    void testUsersAndLinksKept() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+
+        try (PreparedStatement p = conn.prepareStatement("SELECT username FROM users WHERE id = ?")) {
+            p.setBytes(1, UuidCodec.toBytes(ALICE));
+            assertEquals("alice", single(p));
+            p.setBytes(1, UuidCodec.toBytes(BOB));
+            assertEquals("bob", single(p));
+        }
+
+        assertEquals(4, queryInt("SELECT COUNT(*) FROM user_reservations"));
+        assertEquals(4, queryInt("""
+                SELECT COUNT(*) FROM user_reservations ur
+                JOIN users u ON u.id = ur.user_id
+                JOIN reservations r ON r.id = ur.reservation_id
+                """), "every link still joins");
+        try (PreparedStatement p = conn.prepareStatement(
+                "SELECT COUNT(*) FROM user_reservations WHERE user_id = ? AND reservation_id = ?")) {
+            assertLinked(p, ALICE, VIP);
+            assertLinked(p, ALICE, FLOOR);
+            assertLinked(p, BOB, STANDARD);
+            assertLinked(p, BOB, ORPHAN);
+        }
+    }
+
+    @Test
+    void testIntegrity() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+
+        assertEquals("ok", queryString("PRAGMA integrity_check"));
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA foreign_key_check")) {
+            assertFalse(rs.next(), "foreign key violations");
+        }
+        assertTrue(conn.getAutoCommit(), "connection is handed back in autocommit mode");
+    }
+
+    @Test
+    void testMigrateTwice() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator();
+        migrator.migrate(conn);
+        long before = reservedAt(STANDARD);
+
+        migrator.migrate(conn);
+
+        assertEquals(SchemaMigrator.latestVersion(), queryInt("SELECT COUNT(*) FROM schema_version"));
+        assertEquals(before, reservedAt(STANDARD));
+    }
+
+    private void reservation(UUID id, int eventId, String category, int quantity, String reservedAt)
+            throws SQLException {
+        try (PreparedStatement p = conn.prepareStatement("INSERT INTO reservations VALUES(?,?,?,?,?)")) {
+            p.setString(1, id.toString());
+            p.setInt(2, eventId);
+            p.setString(3, category);
+            p.setInt(4, quantity);
+            p.setString(5, reservedAt);
+            p.executeUpdate();
+        }
+    }
+
+    private void link(UUID userId, UUID reservationId) throws SQLException {
+        try (PreparedStatement p = conn.prepareStatement("INSERT INTO user_reservations VALUES(?,?)")) {
+            p.setString(1, userId.toString());
+            p.setString(2, reservationId.toString());
+            p.executeUpdate();
+        }
+    }
+
+    private static long micros(String iso) {
+        return TimestampCodec.toMicros(LocalDateTime.parse(iso));
+    }
+
+    private long eventTime(int eventId) throws SQLException {
+        try (PreparedStatement p = conn.prepareStatement("SELECT date_time, typeof(date_time) FROM events WHERE event_id = ?")) {
+            p.setInt(1, eventId);
+            return integerColumn(p);
+        }
+    }
+
+    private long reservedAt(UUID id) throws SQLException {
+        try (PreparedStatement p = conn.prepareStatement("SELECT reserved_at, typeof(reserved_at) FROM reservations WHERE id = ?")) {
+            p.setBytes(1, UuidCodec.toBytes(id));
+            return integerColumn(p);
+        }
+    }
+
+    private static long integerColumn(PreparedStatement p) throws SQLException {
+        try (ResultSet rs = p.executeQuery()) {
+            assertTrue(rs.next(), "row is missing");
+            assertEquals("integer", rs.getString(2));
+            return rs.getLong(1);
+        }
+    }
+
+    private static void assertReservation(PreparedStatement p, UUID id, int eventId, String category, int quantity)
+            throws SQLException {
+        p.setBytes(1, UuidCodec.toBytes(id));
+        try (ResultSet rs = p.executeQuery()) {
+            assertTrue(rs.next(), "reservation " + id + " is missing");
+            assertEquals(eventId, rs.getInt(1));
+            assertEquals(eventId, rs.getInt(2), "category belongs to the reservation's event");
+            assertEquals(category, rs.getString(3));
+            assertEquals(quantity, rs.getInt(4));
+        }
+    }
+
+    private static void assertLinked(PreparedStatement p, UUID userId, UUID reservationId) throws SQLException {
+        p.setBytes(1, UuidCodec.toBytes(userId));
+        p.setBytes(2, UuidCodec.toBytes(reservationId));
+        try (ResultSet rs = p.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1), "link " + userId + " -> " + reservationId);
+        }
+    }
+
+    private int queryInt(String sql) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+
+    private static String single(PreparedStatement p) throws SQLException {
+        try (ResultSet rs = p.executeQuery()) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.myorg.ticket.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+/**
+ * Points {@code ticket.db.url} at a scratch database, once per test JVM.
+ * Call it before the first {@link PersistenceService#getInstance()}; tests
+ * sharing the database create their own events and users.
+ */
+final class TestDatabase {
+
+    private static File file;
+
+    private TestDatabase() {
+    }
+
+    static synchronized void use() {
+        if (file != null) {
+            return;
+        }
+        try {
+            file = Files.createTempFile("ticket-test", ".db").toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        file.deleteOnExit();
+        System.setProperty("ticket.db.url", "jdbc:sqlite:" + file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,59 @@
+package com.myorg.ticket.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.myorg.ticket.model.User;
+
+public class UserCacheTest {
+
+    private final UserCache cache = UserCache.getInstance();
+
+    private static User user(String prefix) {
+        return new User(prefix + "-" + UUID.randomUUID());
+    }
+
+    @Test
+    void testFillSurvivesOtherUsersChanges() {
+        User loaded = user("loaded");
+        long stamp = cache.stamp();
+        for (int i = 0; i < 100; i++) {
+            UUID other = UUID.randomUUID();
+            if (UserCache.stripe(other) != UserCache.stripe(loaded.getId())) { // a shared stripe may skip the fill
+                cache.reservationsAdded(other, List.of(UUID.randomUUID()));
+            }
+        }
+
+        cache.putIfUnchanged(loaded, stamp);
+
+        assertNotNull(cache.get(loaded.getUsername()), "Other users' bookings should not block the fill");
+    }
+
+    @Test
+    void testFillSkippedAfterOwnChange() {
+        User loaded = user("stale");
+        long stamp = cache.stamp();
+        cache.reservationsAdded(loaded.getId(), List.of(UUID.randomUUID()));
+
+        cache.putIfUnchanged(loaded, stamp);
+
+        assertNull(cache.get(loaded.getUsername()), "A load that may have missed a booking must not be cached");
+    }
+
+    @Test
+    void testUpdatesReachCachedUser() {
+        User cached = user("cached");
+        UUID kept = UUID.randomUUID();
+        UUID cancelled = UUID.randomUUID();
+        cache.put(cached);
+
+        cache.reservationsAdded(cached.getId(), List.of(kept, cancelled));
+        cache.reservationRemoved(cached.getId(), cancelled);
+
+        assertEquals(List.of(kept), cache.get(cached.getUsername()).getPastReservations());
+    }
+}
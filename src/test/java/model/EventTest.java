@@ -100,4 +100,30 @@ public class EventTest {
             categories.add(new TicketCategory("Extra", 2.0, 2));
         }, "Category list should be immutable");
     }
+
+    @Test
+    void testSavedCategoriesKeepTheirIds() {
+        Event event = Event.builder()
+            .name("Saved")
+            .dateTime(LocalDateTime.now())
+            .location("Izmir")
+            .addCategory(11, "VIP", 250.0, 10)
+            .addCategory(12, "Regular", 100.0, 30)
+            .build();
+
+        assertEquals(11, event.getCategories().get(0).getCategoryId());
+        assertEquals(12, event.getCategories().get(1).getCategoryId());
+    }
+
+    @Test
+    void testUnsavedCategoriesHaveNoId() {
+        Event event = Event.builder()
+            .name("Unsaved")
+            .dateTime(LocalDateTime.now())
+            .location("Ankara")
+            .addCategory("VIP", 250.0, 10)
+            .build();
+
+        assertEquals(0, event.getCategories().get(0).getCategoryId(), "Category ID should be 0 until saved");
+    }
 }
@@ -0,0 +1,106 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.myorg.ticket.model.Reservation;
+import com.myorg.ticket.model.ReservationIdGenerator;
+
+public class ReservationIdGeneratorTest {
+
+    @Test
+    void testTimeOrderedIdsAreVersion7() {
+        UUID id = ReservationIdGenerator.timeOrdered().next();
+
+        assertEquals(7, id.version(), "Time-ordered IDs should be version 7");
+        assertEquals(2, id.variant(), "Time-ordered IDs should use the IETF variant");
+    }
+
+    @Test
+    void testTimeOrderedIdsCarryCreationTime() {
+        long before = System.currentTimeMillis();
+        UUID id = ReservationIdGenerator.timeOrdered().next();
+        long after = System.currentTimeMillis();
+
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before, "Timestamp should not precede the call");
+        // a counter overflow may borrow a few milliseconds ahead
+        assertTrue(millis <= after + 1_000, "Timestamp should be close to the call");
+    }
+
+    @Test
+    void testTimeOrderedIdsStrictlyIncrease() {
+        ReservationIdGenerator generator = ReservationIdGenerator.timeOrdered();
+        UUID previous = generator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = generator.next();
+            assertTrue(compareBytes(previous, next) < 0, "Each ID should sort after the previous one");
+            previous = next;
+        }
+    }
+
+    @Test
+    void testConcurrentIdsAreUnique() throws Exception {
+        ReservationIdGenerator generator = ReservationIdGenerator.timeOrdered();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.next());
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> f : futures) {
+                all.addAll(f.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(threads * perThread, all.size(), "No ID should be issued twice");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testReservationUsesInstalledGenerator() {
+        UUID fixed = UUID.randomUUID();
+        Reservation.setIdGenerator(() -> fixed);
+        try {
+            assertEquals(fixed, new Reservation(1, "VIP", 1).getId(), "Reservation should take its ID from the generator");
+        } finally {
+            Reservation.setIdGenerator(ReservationIdGenerator.timeOrdered());
+        }
+        assertEquals(7, new Reservation(1, "VIP", 1).getId().version(), "Default generator should be time-ordered");
+    }
+
+    @Test
+    void testNullGeneratorRejected() {
+        assertThrows(NullPointerException.class, () -> Reservation.setIdGenerator(null));
+    }
+
+    /** Orders UUIDs as SQLite orders their 16-byte BLOB form. */
+    private static int compareBytes(UUID a, UUID b) {
+        int c = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return c != 0 ? c : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
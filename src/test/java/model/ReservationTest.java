@@ -41,6 +41,31 @@ public class ReservationTest {
 
         assertEquals(originalId, modified.getId(), "Modified ID should match provided ID");
         assertSame(original, modified, "Returned reservation should be same instance");
-        // NOT: `customDate` is not applied, but test ensures `withId` behaves as implemented.
+        assertEquals(customDate, modified.getReservedAt(), "Provided date should replace the reservation time");
+    }
+
+    @Test
+    void testWithIdKeepsTimeWhenDateIsNull() {
+        Reservation original = new Reservation(7, "Standard", 5);
+        LocalDateTime reservedAt = original.getReservedAt();
+
+        Reservation modified = Reservation.withId(UUID.randomUUID().toString(), null, original);
+
+        assertEquals(reservedAt, modified.getReservedAt(), "A null date should leave the reservation time unchanged");
+    }
+
+    @Test
+    void testRestoreKeepsStoredValues() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime reservedAt = LocalDateTime.of(2025, 5, 27, 11, 21, 0, 788_827_000);
+
+        Reservation restored = Reservation.restore(id, 6, 5, "VIP", 10, reservedAt);
+
+        assertEquals(id, restored.getId(), "Restored ID should match the stored one");
+        assertEquals(6, restored.getEventId());
+        assertEquals(5, restored.getCategoryId());
+        assertEquals("VIP", restored.getCategoryName());
+        assertEquals(10, restored.getQuantity());
+        assertEquals(reservedAt, restored.getReservedAt(), "Restored time should match the stored one");
     }
 }
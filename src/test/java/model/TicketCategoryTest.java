@@ -2,6 +2,15 @@ package model;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
 
 import com.myorg.ticket.model.TicketCategory;
@@ -50,4 +59,83 @@ public class TicketCategoryTest {
         category.restore(-2);
         assertEquals(4, category.getAvailable(), "Available tickets should not change on invalid restore");
     }
+
+    @Test
+    void testConcurrentReserveNeverOversells() throws Exception {
+        TicketCategory category = new TicketCategory("Concert-F", 60.0, 1_000);
+        int threads = 16;
+        int attemptsPerThread = 500;
+
+        List<Integer> sold = runConcurrently(threads, () -> {
+            int mine = 0;
+            for (int i = 0; i < attemptsPerThread; i++) {
+                int qty = 1 + i % 3;
+                if (category.reserve(qty)) {
+                    mine += qty;
+                }
+            }
+            return mine;
+        });
+
+        int total = sold.stream().mapToInt(Integer::intValue).sum();
+        assertEquals(1_000, total + category.getAvailable(), "Sold plus available should equal the initial stock");
+        assertTrue(category.getAvailable() >= 0, "Available tickets should never go negative");
+        assertTrue(category.getAvailable() < 3, "Demand exceeds stock, so only a remainder smaller than a request may be left");
+    }
+
+    @Test
+    void testConcurrentRestoreLosesNothing() throws Exception {
+        TicketCategory category = new TicketCategory("Concert-G", 60.0, 0);
+        int threads = 16;
+        int restoresPerThread = 1_000;
+
+        runConcurrently(threads, () -> {
+            for (int i = 0; i < restoresPerThread; i++) {
+                category.restore(1);
+            }
+            return 0;
+        });
+
+        assertEquals(threads * restoresPerThread, category.getAvailable(), "Every restore should be counted");
+    }
+
+    @Test
+    void testConcurrentReserveAndRestoreBalance() throws Exception {
+        TicketCategory category = new TicketCategory("Concert-H", 60.0, 50);
+        int threads = 16;
+
+        runConcurrently(threads, () -> {
+            for (int i = 0; i < 2_000; i++) {
+                if (category.reserve(2)) {
+                    category.restore(2);
+                }
+            }
+            return 0;
+        });
+
+        assertEquals(50, category.getAvailable(), "Each reserve was undone by a restore");
+    }
+
+    /** Starts all tasks at once and returns their results. */
+    private static <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> f : futures) {
+                results.add(f.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 }
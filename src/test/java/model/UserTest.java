@@ -80,4 +80,19 @@ public class UserTest {
         assertEquals(1, reservations.size(), "Old reservations should be cleared");
         assertEquals(newOne, reservations.get(0), "Only new reservation should be kept");
     }
+
+    @Test
+    void testRemoveReservation() {
+        User user = new User("canceller");
+        UUID kept = UUID.randomUUID();
+        UUID cancelled = UUID.randomUUID();
+
+        user.addReservation(kept);
+        user.addReservation(cancelled);
+        user.removeReservation(cancelled);
+
+        List<UUID> reservations = user.getPastReservations();
+        assertEquals(1, reservations.size(), "Cancelled reservation should be removed");
+        assertEquals(kept, reservations.get(0), "Other reservations should be kept");
+    }
 }
@@ -65,6 +65,47 @@ public class SearchEventsCommandTest {
         verify(mockUI).println(contains("Standard: $75.00"));
     }
 
+    @Test
+    void testKeywordsSearchByText() {
+        LocalDate start = LocalDate.of(2025, 5, 1);
+        LocalDate end = LocalDate.of(2025, 5, 31);
+
+        Event event = Event.builder()
+                .name("Coldplay Live")
+                .dateTime(LocalDateTime.of(2025, 5, 20, 21, 0))
+                .location("Istanbul Arena")
+                .addCategory("Standard", 90.0, 100)
+                .build();
+
+        when(mockUI.promptDate("Start date (yyyy-MM-dd): ")).thenReturn(start);
+        when(mockUI.promptDate("End date   (yyyy-MM-dd): ")).thenReturn(end);
+        when(mockUI.prompt("Name or venue (optional): ")).thenReturn("coldplay istanbul");
+        when(mockEventService.searchText(eq("coldplay istanbul"), eq(start), eq(end), anyInt()))
+                .thenReturn(List.of(event));
+
+        command.execute();
+
+        verify(mockEventService, never()).search(any(), any());
+        verify(mockUI).println(contains("Coldplay Live"));
+        verify(mockUI).println(contains("Standard: $90.00"));
+    }
+
+    @Test
+    void testBlankKeywordsSearchByDateOnly() {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+
+        when(mockUI.promptDate("Start date (yyyy-MM-dd): ")).thenReturn(start);
+        when(mockUI.promptDate("End date   (yyyy-MM-dd): ")).thenReturn(end);
+        when(mockUI.prompt("Name or venue (optional): ")).thenReturn("  ");
+        when(mockEventService.search(start, end)).thenReturn(List.of());
+
+        command.execute();
+
+        verify(mockEventService, never()).searchText(anyString(), any(), any(), anyInt());
+        verify(mockUI).println("No events found.");
+    }
+
     @Test
     void testSearchThrowsException() {
         when(mockUI.promptDate(anyString())).thenThrow(new RuntimeException("Invalid input"));
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.Mockito.*;
@@ -62,4 +64,21 @@ public class ViewReservationCommandTest {
 
         verify(mockUI).println(startsWith("Error loading reservation"));
     }
+
+    @Test
+    void testMultipleIdsAreLookedUpTogether() {
+        UUID found = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        Reservation reservation = new Reservation(7, "Standard", 3);
+        Reservation.withId(found.toString(), LocalDateTime.of(2025, 1, 1, 12, 0), reservation);
+
+        when(mockUI.prompt("Reservation ID: ")).thenReturn(found + ", " + missing);
+        when(mockService.findByIds(List.of(found, missing))).thenReturn(Map.of(found, reservation));
+
+        command.execute();
+
+        verify(mockService, never()).findById(any());
+        verify(mockUI).println(contains("Reservation " + found));
+        verify(mockUI).println("Not found: " + missing);
+    }
 }